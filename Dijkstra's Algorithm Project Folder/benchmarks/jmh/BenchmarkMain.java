@@ -0,0 +1,39 @@
+package jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+public class BenchmarkMain
+{
+	/* The entry point of target/benchmarks.jar. It takes the usual JMH command line and adds the GC profiler unless it
+	 * was asked for already, so every result comes with the bytes allocated per operation, the allocation rate and the
+	 * collections it caused.
+	 */
+
+	public static void main(String[] args) throws Exception
+	{
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers() || cmd.shouldListResultFormats()
+				|| cmd.shouldListWithParams())
+		{
+			//help and the listings are handled by JMH's own entry point
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		OptionsBuilder options = new OptionsBuilder();
+		options.parent(cmd);
+		boolean profiled = false;
+		for (ProfilerConfig profiler: cmd.getProfilers())
+		{
+			profiled |= profiler.getKlass().equals("gc") || profiler.getKlass().equals(GCProfiler.class.getName());
+		}
+		if (!profiled)
+		{
+			options.addProfiler(GCProfiler.class);
+		}
+		new Runner(options.build()).run();
+	}
+}
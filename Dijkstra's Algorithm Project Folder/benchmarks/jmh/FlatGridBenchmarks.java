@@ -0,0 +1,99 @@
+package jmh;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class FlatGridBenchmarks
+{
+	/* JMH benchmarks for FlatGrid, the backend for puzzles too big to hold as a Grid: reading a puzzle with the
+	 * Scanner constructor and with the memory-mapped FlatGrid.load, and solving it with getPath. The puzzles are the
+	 * same as in GridBenchmarks.
+	 */
+
+	@Param({"Puzzle.txt", "Large.txt", "Box.txt", "Unsolvable.txt",
+			"open-100", "maze-100", "corridors-100",
+			"open-10000", "maze-10000", "corridors-10000",
+			"open-1000000", "maze-1000000", "corridors-1000000",
+			"open-10000000", "maze-10000000", "corridors-10000000"})
+	public String puzzle;
+
+	private String text;
+	private File file;		//the text written out for load
+	private Object grid;
+
+	//Precondition: The puzzle parameter has been set
+	//Postcondition: Reads or generates the puzzle, writes it to a temporary file and builds its grid
+	@Setup
+	public void setUp() throws Throwable
+	{
+		text = GridApi.getPuzzleText(puzzle);
+		file = File.createTempFile("benchmark", ".txt");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(text.getBytes("US-ASCII"));
+		out.close();
+		grid = (Object) GridApi.NEW_FLAT_GRID.invokeExact(new Scanner(text));
+	}
+
+	//Precondition: The benchmarks have run
+	//Postcondition: The temporary file is deleted
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		if (!file.delete())
+		{
+			throw new IOException("Could not delete " + file);
+		}
+	}
+
+	@Benchmark
+	public Object construct() throws Throwable
+	{
+		return (Object) GridApi.NEW_FLAT_GRID.invokeExact(new Scanner(text));
+	}
+
+	@Benchmark
+	public Object load() throws Throwable
+	{
+		return (Object) GridApi.LOAD_FLAT_GRID.invokeExact(file);
+	}
+
+	@Benchmark
+	public int[] getPath() throws Throwable
+	{
+		try
+		{
+			return (int[]) GridApi.FLAT_GET_PATH.invokeExact(grid);
+		}
+		catch (RuntimeException e)
+		{
+			if (GridApi.isUnsolvable(e))
+			{
+				return null;
+			}
+			throw e;
+		}
+	}
+}
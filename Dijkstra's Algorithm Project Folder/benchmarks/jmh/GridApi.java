@@ -0,0 +1,117 @@
+package jmh;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+
+final class GridApi
+{
+	/* The puzzle classes live in the default package, which no named package can import, and JMH refuses benchmarks in
+	 * the default package. So the benchmarks reach Grid and FlatGrid through these method handles, looked up once by
+	 * class name.
+	 * Each is a static final constant adapted to Object in place of the puzzle types, which the JIT inlines like a
+	 * direct call, so the handles add nothing measurable to the work being timed.
+	 */
+
+	private static final String[] KINDS = {"open", "maze", "corridors"}; //in MazeGenerator's order
+
+	static final MethodHandle NEW_GRID;			//(Scanner) -> Grid
+	static final MethodHandle GET_PATH;			//(Grid) -> ArrayList<Vertex>
+	static final MethodHandle GET_PATH_MODE;	//(Grid, int mode) -> ArrayList<Vertex>
+	static final MethodHandle SET_WALL;			//(Grid, int, int, boolean) -> boolean
+	static final MethodHandle FORGET_SEARCHES;	//(Grid) -> void
+	static final MethodHandle GET_WIDTH;		//(Grid) -> int
+	static final MethodHandle GET_HEIGHT;		//(Grid) -> int
+	static final MethodHandle GET_VERTEX;		//(Grid, int, int) -> Vertex
+	static final MethodHandle IS_WALL;			//(Vertex) -> boolean
+	static final MethodHandle GET_SOLUTION;		//(Grid, ArrayList<Vertex>) -> String
+	static final MethodHandle GENERATE_TEXT;	//(int kind, int width, int height, long seed) -> String
+	static final MethodHandle NEW_FLAT_GRID;	//(Scanner) -> FlatGrid
+	static final MethodHandle LOAD_FLAT_GRID;	//(File) -> FlatGrid
+	static final MethodHandle FLAT_GET_PATH;	//(FlatGrid) -> int[]
+	static final MethodHandle FLAT_GET_PATH_POOL;	//(FlatGrid, ForkJoinPool) -> int[]
+
+	static
+	{
+		try
+		{
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			Class<?> grid = Class.forName("Grid");
+			Class<?> vertex = Class.forName("Vertex");
+			Class<?> flat = Class.forName("FlatGrid");
+			NEW_GRID = lookup.findConstructor(grid, MethodType.methodType(void.class, Scanner.class))
+					.asType(MethodType.methodType(Object.class, Scanner.class));
+			GET_PATH = lookup.findVirtual(grid, "getPath", MethodType.methodType(ArrayList.class))
+					.asType(MethodType.methodType(ArrayList.class, Object.class));
+			GET_PATH_MODE = lookup.findVirtual(grid, "getPath", MethodType.methodType(ArrayList.class, int.class))
+					.asType(MethodType.methodType(ArrayList.class, Object.class, int.class));
+			SET_WALL = lookup.findVirtual(grid, "setWall", MethodType.methodType(boolean.class, int.class, int.class,
+					boolean.class)).asType(MethodType.methodType(boolean.class, Object.class, int.class, int.class,
+					boolean.class));
+			FORGET_SEARCHES = lookup.findVirtual(grid, "forgetSearches", MethodType.methodType(void.class))
+					.asType(MethodType.methodType(void.class, Object.class));
+			GET_WIDTH = lookup.findVirtual(grid, "getWidth", MethodType.methodType(int.class))
+					.asType(MethodType.methodType(int.class, Object.class));
+			GET_HEIGHT = lookup.findVirtual(grid, "getHeight", MethodType.methodType(int.class))
+					.asType(MethodType.methodType(int.class, Object.class));
+			GET_VERTEX = lookup.findVirtual(grid, "getVertex", MethodType.methodType(vertex, int.class, int.class))
+					.asType(MethodType.methodType(Object.class, Object.class, int.class, int.class));
+			IS_WALL = lookup.findVirtual(vertex, "isWall", MethodType.methodType(boolean.class))
+					.asType(MethodType.methodType(boolean.class, Object.class));
+			GET_SOLUTION = lookup.findVirtual(grid, "getSolution", MethodType.methodType(String.class, ArrayList.class))
+					.asType(MethodType.methodType(String.class, Object.class, ArrayList.class));
+			GENERATE_TEXT = lookup.findStatic(Class.forName("MazeGenerator"), "generateText",
+					MethodType.methodType(String.class, int.class, int.class, int.class, long.class));
+			NEW_FLAT_GRID = lookup.findConstructor(flat, MethodType.methodType(void.class, Scanner.class))
+					.asType(MethodType.methodType(Object.class, Scanner.class));
+			LOAD_FLAT_GRID = lookup.findStatic(flat, "load", MethodType.methodType(flat, File.class))
+					.asType(MethodType.methodType(Object.class, File.class));
+			FLAT_GET_PATH = lookup.findVirtual(flat, "getPath", MethodType.methodType(int[].class))
+					.asType(MethodType.methodType(int[].class, Object.class));
+			FLAT_GET_PATH_POOL = lookup.findVirtual(flat, "getPath", MethodType.methodType(int[].class,
+					ForkJoinPool.class)).asType(MethodType.methodType(int[].class, Object.class, ForkJoinPool.class));
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	//Precondition: A throwable thrown by Grid.getPath
+	//Postcondition: Returns whether it is the UnsolvablePuzzleException thrown when there is no path
+	static boolean isUnsolvable(Throwable t)
+	{
+		return t.getClass().getName().equals("UnsolvablePuzzleException");
+	}
+
+	//Precondition: The name of a bundled puzzle file, or of a generated one as kind-cells (see GridBenchmarks)
+	//Postcondition: Returns the text of the puzzle, read from the folder the benchmarks were started in or generated
+	//				 with a fixed seed
+	static String getPuzzleText(String puzzle) throws Throwable
+	{
+		int dash = puzzle.lastIndexOf('-');
+		if (dash == -1)
+		{
+			Scanner scan = new Scanner(new File(puzzle));
+			StringBuilder str = new StringBuilder();
+			while (scan.hasNextLine())
+			{
+				str.append(scan.nextLine()).append('\n');
+			}
+			scan.close();
+			return str.toString();
+		}
+		int kind = Arrays.asList(KINDS).indexOf(puzzle.substring(0, dash));
+		int side = (int) Math.round(Math.sqrt(Long.parseLong(puzzle.substring(dash + 1))));
+		return (String) GENERATE_TEXT.invokeExact(kind, side, side, 42L);
+	}
+
+	private GridApi()
+	{
+	}
+}
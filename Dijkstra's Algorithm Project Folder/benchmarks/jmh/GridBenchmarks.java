@@ -0,0 +1,119 @@
+package jmh;
+
+import java.util.ArrayList;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class GridBenchmarks
+{
+	/* JMH benchmarks for Grid's main entry points: the constructor, getPath, getVertex, toString and getSolution.
+	 * Each runs on the bundled puzzles (read from the folder the benchmarks are started in, so start them from the
+	 * project folder) and on generated open fields, perfect mazes and sparse corridors from 10^2 to 10^7 cells, named
+	 * kind-cells. Throughput and sampled latency are both reported, and BenchmarkMain adds the GC profiler.
+	 *
+	 * Grid keeps its Dijkstra tree between solves, so getPath drops it first (forgetSearches) and every call is a
+	 * whole solve. Unsolvable.txt is timed up to the point where the solve finds there is no path.
+	 */
+
+	@Param({"Puzzle.txt", "Large.txt", "Box.txt", "Unsolvable.txt",
+			"open-100", "maze-100", "corridors-100",
+			"open-10000", "maze-10000", "corridors-10000",
+			"open-1000000", "maze-1000000", "corridors-1000000",
+			"open-10000000", "maze-10000000", "corridors-10000000"})
+	public String puzzle;
+
+	private String text;
+	private Object grid;
+	private ArrayList<?> path;	//the solution of grid, or null if it has none
+
+	//Precondition: The puzzle parameter has been set
+	//Postcondition: Reads or generates the puzzle, builds its grid and solves it once for getSolution
+	@Setup
+	public void setUp() throws Throwable
+	{
+		text = GridApi.getPuzzleText(puzzle);
+		grid = (Object) GridApi.NEW_GRID.invokeExact(new Scanner(text));
+		path = solve();
+	}
+
+	@Benchmark
+	public Object construct() throws Throwable
+	{
+		return (Object) GridApi.NEW_GRID.invokeExact(new Scanner(text));
+	}
+
+	@Benchmark
+	public Object getPath() throws Throwable
+	{
+		GridApi.FORGET_SEARCHES.invokeExact(grid);
+		return solve();
+	}
+
+	@Benchmark
+	public void getVertex(Blackhole hole) throws Throwable
+	{
+		int width = (int) GridApi.GET_WIDTH.invokeExact(grid);
+		int height = (int) GridApi.GET_HEIGHT.invokeExact(grid);
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				hole.consume((Object) GridApi.GET_VERTEX.invokeExact(grid, x, y));
+			}
+		}
+	}
+
+	@Benchmark
+	public String gridToString()
+	{
+		return grid.toString();
+	}
+
+	@Benchmark
+	public String getSolution() throws Throwable
+	{
+		if (path == null)
+		{
+			//an unsolvable puzzle has no solution to print
+			return null;
+		}
+		return (String) GridApi.GET_SOLUTION.invokeExact(grid, (ArrayList) path);
+	}
+
+	//Precondition: The grid has been built
+	//Postcondition: Returns its shortest path, or null if there is none
+	private ArrayList<?> solve() throws Throwable
+	{
+		try
+		{
+			return (ArrayList) GridApi.GET_PATH.invokeExact(grid);
+		}
+		catch (RuntimeException e)
+		{
+			if (GridApi.isUnsolvable(e))
+			{
+				return null;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package jmh;
+
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class ParallelSearchBenchmarks
+{
+	/* JMH benchmarks for FlatGrid.getPath(ForkJoinPool), the parallel delta-stepping solver (see ParallelSearch), on
+	 * pools of several sizes. A pool size of 0 runs the sequential FlatGrid.getPath instead, as the baseline the
+	 * parallel solver has to beat. Only puzzles with rings wider than ParallelSearch.CHUNK can use more than one
+	 * thread, so the puzzles are the large generated ones.
+	 */
+
+	@Param({"0", "1", "2", "4", "8"})
+	public int threads;
+
+	@Param({"open-1000000", "maze-1000000", "corridors-1000000",
+			"open-10000000", "maze-10000000", "corridors-10000000"})
+	public String puzzle;
+
+	private Object grid;
+	private ForkJoinPool pool;
+
+	//Precondition: The parameters have been set
+	//Postcondition: Generates the puzzle, builds its grid and starts the pool
+	@Setup
+	public void setUp() throws Throwable
+	{
+		grid = (Object) GridApi.NEW_FLAT_GRID.invokeExact(new Scanner(GridApi.getPuzzleText(puzzle)));
+		if (threads > 0)
+		{
+			pool = new ForkJoinPool(threads);
+		}
+	}
+
+	//Precondition: The benchmarks have run
+	//Postcondition: The pool is shut down
+	@TearDown
+	public void tearDown()
+	{
+		if (pool != null)
+		{
+			pool.shutdown();
+		}
+	}
+
+	@Benchmark
+	public int[] getPath() throws Throwable
+	{
+		if (pool == null)
+		{
+			return (int[]) GridApi.FLAT_GET_PATH.invokeExact(grid);
+		}
+		return (int[]) GridApi.FLAT_GET_PATH_POOL.invokeExact(grid, pool);
+	}
+}
@@ -0,0 +1,113 @@
+package jmh;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class SolveModeBenchmarks
+{
+	/* JMH benchmarks for the solve modes besides Dijkstra, which GridBenchmarks covers. The mode parameter is the
+	 * number of a Grid solve mode: 1 A*, 2 bidirectional Dijkstra, 3 bidirectional A*, 4 Jump Point Search and
+	 * 5 Lifelong Planning A*.
+	 *
+	 * getPath drops the searches Grid keeps between solves first, so every call is a whole solve. setWall builds a
+	 * wall on a random inside cell, or takes the last one down again, before solving, which is where Lifelong
+	 * Planning A* only repairs what the change affected while the other modes solve from scratch.
+	 */
+
+	@Param({"1", "2", "3", "4", "5"})
+	public int mode;
+
+	@Param({"Puzzle.txt", "Large.txt",
+			"open-10000", "maze-10000", "corridors-10000",
+			"open-1000000", "maze-1000000", "corridors-1000000"})
+	public String puzzle;
+
+	private Object grid;
+	private Random rand;
+	private int x = -1, y;	//the cell last made a wall by setWall, or -1 once it has been taken down again
+
+	//Precondition: The mode and puzzle parameters have been set
+	//Postcondition: Reads or generates the puzzle and builds its grid
+	@Setup
+	public void setUp() throws Throwable
+	{
+		grid = (Object) GridApi.NEW_GRID.invokeExact(new Scanner(GridApi.getPuzzleText(puzzle)));
+		rand = new Random(42);
+	}
+
+	@Benchmark
+	public Object getPath() throws Throwable
+	{
+		GridApi.FORGET_SEARCHES.invokeExact(grid);
+		return solve();
+	}
+
+	@Benchmark
+	public Object setWall() throws Throwable
+	{
+		if (x == -1)
+		{
+			int width = (int) GridApi.GET_WIDTH.invokeExact(grid);
+			int height = (int) GridApi.GET_HEIGHT.invokeExact(grid);
+			x = 1 + rand.nextInt(width - 2);
+			y = 1 + rand.nextInt(height - 2);
+			if (!toggleWall())
+			{
+				//the start or the finish
+				x = -1;
+			}
+		}
+		else
+		{
+			toggleWall();
+			x = -1;
+		}
+		return solve();
+	}
+
+	//Precondition: The coordinates of a cell in x and y
+	//Postcondition: Builds a wall there or takes it down, and returns false if the cell is the start or finish
+	private boolean toggleWall() throws Throwable
+	{
+		boolean wall = (boolean) GridApi.IS_WALL.invokeExact((Object) GridApi.GET_VERTEX.invokeExact(grid, x, y));
+		return (boolean) GridApi.SET_WALL.invokeExact(grid, x, y, !wall);
+	}
+
+	//Precondition: The grid has been built
+	//Postcondition: Returns its shortest path found in the mode, or null if there is none
+	private ArrayList<?> solve() throws Throwable
+	{
+		try
+		{
+			return (ArrayList) GridApi.GET_PATH_MODE.invokeExact(grid, mode);
+		}
+		catch (RuntimeException e)
+		{
+			if (GridApi.isUnsolvable(e))
+			{
+				return null;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,335 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BatchSolver
+{
+	/* This class is a headless entry point beside DijkstraDriver. It solves every puzzle file it is given (or every
+	 * file in the directories it is given) on a pool of worker threads and writes one line per puzzle with the cost
+	 * of its path, the number of steps in it and how long it took. The two only differ on puzzles with cell costs.
+	 * Unsolvable or broken puzzles are reported on their own line without stopping the rest of the batch. With
+	 * -cache, answers are shared through a SolutionCache of the given size, so puzzles that repeat in the batch are
+	 * only solved once.
+	 *
+	 * Usage: java BatchSolver [-threads n] [-mode dijkstra|astar|bidirectional|bidirectional-astar|jps|lpa] [-out file]
+	 *                          [-solutions] [-cache MB] file-or-directory...
+	 */
+
+	//Files kept beside puzzles that are not puzzles themselves: contraction hierarchy indexes and TiledGrid puzzles
+	private static final String[] SKIPPED_SUFFIXES = {".ch", ".tiles"};
+
+	private int threads;
+	private int mode;
+	private boolean printSolutions;
+	private PrintStream out;
+	private SolutionCache cache;
+
+	//BatchSolver Constructor
+	//Precondition: The number of worker threads, the Grid solve mode, whether solutions should be drawn out and where to
+	//				write the results
+	//Postcondition: A solver ready to run batches with those settings
+	public BatchSolver(int threads, int mode, boolean printSolutions, PrintStream out)
+	{
+		this.threads = threads;
+		this.mode = mode;
+		this.printSolutions = printSolutions;
+		this.out = out;
+	}
+
+	public static void main(String[] args) throws InterruptedException
+	{
+		System.setProperty("java.awt.headless", "true");
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		int mode = Grid.DIJKSTRA;
+		boolean printSolutions = false;
+		PrintStream out = System.out;
+		SolutionCache cache = null;
+		ArrayList<File> files = new ArrayList<File>();
+
+		try
+		{
+			for (int i = 0; i < args.length; i++)
+			{
+				if (args[i].equals("-threads"))
+				{
+					threads = Integer.parseInt(args[++i]);
+					if (threads < 1)
+					{
+						throw new IllegalArgumentException();
+					}
+				}
+				else if (args[i].equals("-mode"))
+				{
+					mode = parseMode(args[++i]);
+				}
+				else if (args[i].equals("-out"))
+				{
+					out = new PrintStream(new File(args[++i]));
+				}
+				else if (args[i].equals("-solutions"))
+				{
+					printSolutions = true;
+				}
+				else if (args[i].equals("-cache"))
+				{
+					cache = new SolutionCache(Long.parseLong(args[++i]) << 20);
+				}
+				else
+				{
+					addPuzzles(new File(args[i]), files);
+				}
+			}
+		}
+		catch (RuntimeException e)
+		{
+			files.clear();
+		}
+		catch (FileNotFoundException e)
+		{
+			//the -out file cannot be created or written
+			System.err.println("Error: " + e.getMessage());
+			files.clear();
+		}
+
+		if (files.isEmpty())
+		{
+			System.err.println("Usage: java BatchSolver [-threads n] [-mode dijkstra|astar|bidirectional|bidirectional-astar|jps|lpa] "
+					+ "[-out file] [-solutions] [-cache MB] file-or-directory...");
+			System.exit(1);
+		}
+
+		BatchSolver solver = new BatchSolver(threads, mode, printSolutions, out);
+		solver.setSolutionCache(cache);
+		solver.solveAll(files);
+		out.flush();
+		if (out != System.out)
+		{
+			out.close();
+		}
+	}
+
+	//Precondition: A cache to share answers between the puzzles of a batch, or null to solve every puzzle
+	//Postcondition: Every grid solved from now on uses the cache
+	public void setSolutionCache(SolutionCache c)
+	{
+		cache = c;
+	}
+
+	//Precondition: The name of a solve mode given on the command line
+	//Postcondition: Returns the matching Grid solve mode
+	private static int parseMode(String name)
+	{
+		if (name.equals("dijkstra"))
+		{
+			return Grid.DIJKSTRA;
+		}
+		else if (name.equals("astar"))
+		{
+			return Grid.A_STAR;
+		}
+		else if (name.equals("bidirectional"))
+		{
+			return Grid.BIDIRECTIONAL;
+		}
+		else if (name.equals("bidirectional-astar"))
+		{
+			return Grid.BIDIRECTIONAL_A_STAR;
+		}
+		else if (name.equals("jps"))
+		{
+			return Grid.JUMP_POINT;
+		}
+		else if (name.equals("lpa"))
+		{
+			return Grid.LIFELONG_A_STAR;
+		}
+		throw new IllegalArgumentException("Unknown solve mode " + name);
+	}
+
+	//Precondition: A puzzle file or a directory of puzzle files, and the list of files to solve
+	//Postcondition: The file, or every file directly inside the directory (in name order) except those with one of the
+	//				 SKIPPED_SUFFIXES, is added to the list
+	private static void addPuzzles(File f, ArrayList<File> files)
+	{
+		if (f.isDirectory())
+		{
+			File[] inside = f.listFiles();
+			Arrays.sort(inside);
+			for (File puzzle: inside)
+			{
+				if (puzzle.isFile() && !isSkipped(puzzle))
+				{
+					files.add(puzzle);
+				}
+			}
+		}
+		else
+		{
+			files.add(f);
+		}
+	}
+
+	//Precondition: A file found in a directory of puzzles
+	//Postcondition: Returns whether its name ends in one of the SKIPPED_SUFFIXES
+	private static boolean isSkipped(File f)
+	{
+		for (String suffix: SKIPPED_SUFFIXES)
+		{
+			if (f.getName().endsWith(suffix))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	//Precondition: A list of puzzle files
+	//Postcondition: Every puzzle is solved on the worker pool and its result is written in the order given, followed by
+	//				 a summary line. Returns the number of puzzles that were solved.
+	public int solveAll(ArrayList<File> files) throws InterruptedException
+	{
+		long batchStart = System.nanoTime();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ArrayList<Future<Result>> results = new ArrayList<Future<Result>>(files.size());
+		for (final File f: files)
+		{
+			results.add(pool.submit(new Callable<Result>()
+			{
+				public Result call()
+				{
+					return solve(f);
+				}
+			}));
+		}
+		pool.shutdown();
+
+		int solved = 0, unsolvable = 0, failed = 0;
+		for (int i = 0; i < results.size(); i++)
+		{
+			Result r;
+			try
+			{
+				r = results.get(i).get();
+			}
+			catch (ExecutionException e)
+			{
+				r = new Result(files.get(i), Result.ERROR, 0, 0, null, 0, e.getCause().toString(), null);
+			}
+			results.set(i, null);
+
+			if (r.status == Result.SOLVED)
+			{
+				solved++;
+				out.println(r.file.getPath() + "\tcost " + r.cost + "\tsteps " + r.steps + "\t" + r.stats.getStrategy() + "\texpanded "
+						+ r.stats.getExpanded() + "\t" + formatMillis(r.nanos));
+				if (r.solution != null)
+				{
+					out.print(r.solution);
+				}
+			}
+			else if (r.status == Result.UNSOLVABLE)
+			{
+				unsolvable++;
+				out.println(r.file.getPath() + "\tunsolvable\t" + r.stats.getStrategy() + "\texpanded "
+						+ r.stats.getExpanded() + "\t" + formatMillis(r.nanos));
+			}
+			else
+			{
+				failed++;
+				out.println(r.file.getPath() + "\terror " + r.message);
+			}
+		}
+		out.println("# " + files.size() + " puzzles: " + solved + " solved, " + unsolvable + " unsolvable, " + failed
+				+ " errors, " + threads + " threads, " + formatMillis(System.nanoTime() - batchStart) + " total");
+		if (cache != null)
+		{
+			out.println("# " + cache);
+		}
+		return solved;
+	}
+
+	//Precondition: A puzzle file
+	//Postcondition: Reads and solves the puzzle and returns what happened, timing only the solve itself
+	private Result solve(File f)
+	{
+		Grid g;
+		try
+		{
+			g = Grid.load(f);
+		}
+		catch (FileNotFoundException e)
+		{
+			return new Result(f, Result.ERROR, 0, 0, null, 0, "file does not exist", null);
+		}
+		catch (IOException e)
+		{
+			return new Result(f, Result.ERROR, 0, 0, null, 0, e.getMessage(), null);
+		}
+		if (g.getStart() == null || g.getFinish() == null)
+		{
+			return new Result(f, Result.ERROR, 0, 0, null, 0, "puzzle has no start or finish", null);
+		}
+		g.setSolutionCache(cache);
+
+		long time = System.nanoTime();
+		try
+		{
+			ArrayList<Vertex> path = g.getPath(mode);
+			time = System.nanoTime() - time;
+			return new Result(f, Result.SOLVED, g.getPathCost(path), path.size() - 1, g.getSolveStats(), time, null,
+					printSolutions ? g.getSolution(path) : null);
+		}
+		catch (UnsolvablePuzzleException u)
+		{
+			return new Result(f, Result.UNSOLVABLE, 0, 0, g.getSolveStats(), System.nanoTime() - time, null,
+					null);
+		}
+	}
+
+	//Precondition: A duration in nanoseconds
+	//Postcondition: Returns the duration in milliseconds with three decimal places
+	private static String formatMillis(long nanos)
+	{
+		return String.format("%.3f ms", nanos / 1e6);
+	}
+
+	private static class Result
+	{
+		/* The outcome of solving one puzzle in a batch
+		 */
+
+		static final int SOLVED = 0;
+		static final int UNSOLVABLE = 1;
+		static final int ERROR = 2;
+
+		File file;
+		int status;
+		int cost;
+		int steps;
+		SolveStats stats;
+		long nanos;
+		String message;
+		String solution;
+
+		Result(File file, int status, int cost, int steps, SolveStats stats, long nanos, String message, String solution)
+		{
+			this.file = file;
+			this.status = status;
+			this.cost = cost;
+			this.steps = steps;
+			this.stats = stats;
+			this.nanos = nanos;
+			this.message = message;
+			this.solution = solution;
+		}
+	}
+}
@@ -0,0 +1,207 @@
+import java.util.ArrayList;
+import java.util.Collections;
+
+public class BidirectionalSearch
+{
+	/* This class solves a Grid by growing one search from the start and another from the finish until they meet in
+	 * the middle, which explores a much smaller area than a single search on long open routes. Each side keeps its
+	 * own reach values and directions in arrays indexed by Vertex.getIndex(), so the Vertex fields used by
+	 * Grid.getPath are left alone. The arrays are borrowed from the grid (Grid.getSearchState) and cleared in constant
+	 * time, so a solve allocates nothing in proportion to the grid.
+	 *
+	 * Every time a side looks across an edge at a vertex the other side has already reached, the length of that
+	 * start-to-finish route is compared with the best one found so far. The search stops once the two lowest
+	 * frontier priorities add up to at least the best route, because no route through an unresolved vertex can be
+	 * shorter. If either frontier runs out before the sides meet, the puzzle has no solution.
+	 *
+	 * With A* turned on, both sides use the average of the two Manhattan estimates as a potential (forward priority
+	 * 2 * reach + hFinish - hStart, backward 2 * reach + hStart - hFinish). That keeps both sides consistent with
+	 * each other, so the same stopping rule still holds.
+	 */
+
+	private static final int FORWARD = 0;
+	private static final int BACKWARD = 1;
+	private static final int REACH_STATE = 0;		//the grid's search states for reach[FORWARD] and reach[BACKWARD]
+	private static final int DIRECTION_STATE = 2;	//and for direction[FORWARD] and direction[BACKWARD]
+
+	private Grid grid;
+	private boolean aStar;
+	private CellValues[] reach;		//reach[side] is the reach from that side's end point, marked once resolved
+	private CellValues[] direction;	//direction[side] points every reached cell at the neighbor it was reached from
+	private CellHeap[] frontier;
+	private int best, meetFrom, meetTo; //length of the best route found and the edge where its two halves join
+	private int expanded;
+	private SolveMonitor monitor; //the grid's, or null
+
+	//BidirectionalSearch Constructor
+	//Precondition: A grid with a start and a finish, and whether the sides should be guided by the A* estimates
+	//Postcondition: A search ready to solve the grid
+	public BidirectionalSearch(Grid grid, boolean aStar)
+	{
+		this.grid = grid;
+		this.aStar = aStar;
+		monitor = grid.getSolveMonitor();
+	}
+
+	//Precondition: An initialized search
+	//Postcondition: Solves for and returns the shortest path from the start to the finish. Throws an
+	//				 UnsolvablePuzzleException as soon as either side has nothing left to reach.
+	public ArrayList<Vertex> solve()
+	{
+		reach = new CellValues[2];
+		direction = new CellValues[2];
+		for (int side = FORWARD; side <= BACKWARD; side++)
+		{
+			reach[side] = grid.getSearchState(REACH_STATE + side);
+			direction[side] = grid.getSearchState(DIRECTION_STATE + side);
+			reach[side].clear(Integer.MAX_VALUE);
+			direction[side].clear(0);
+		}
+		frontier = new CellHeap[] {new CellHeap(), new CellHeap()};
+		best = Integer.MAX_VALUE;
+		expanded = 0;
+
+		Vertex start = grid.getStart();
+		Vertex finish = grid.getFinish();
+		reach[FORWARD].set(start.getIndex(), 0);
+		reach[BACKWARD].set(finish.getIndex(), 0);
+		frontier[FORWARD].add(start.getIndex(), getPriority(FORWARD, start));
+		frontier[BACKWARD].add(finish.getIndex(), getPriority(BACKWARD, finish));
+		if (start == finish)
+		{
+			best = 0;
+			meetFrom = start.getIndex();
+			meetTo = start.getIndex();
+		}
+
+		while (dropResolved(FORWARD) && dropResolved(BACKWARD))
+		{
+			if (best != Integer.MAX_VALUE && (long) frontier[FORWARD].peekKey() + frontier[BACKWARD].peekKey() >= 2L * best)
+			{
+				break;
+			}
+
+			//grows whichever side currently has the smaller frontier
+			int side = frontier[FORWARD].size() <= frontier[BACKWARD].size() ? FORWARD : BACKWARD;
+			int cell = frontier[side].poll();
+			expand(side, grid.getVertex(cell));
+			if (monitor != null && (expanded & (SolveMonitor.REPORT_INTERVAL - 1)) == 0)
+			{
+				monitor.report(expanded, reach[side].get(cell));
+			}
+		}
+
+		if (best == Integer.MAX_VALUE)
+		{
+			throw new UnsolvablePuzzleException();
+		}
+		return buildPath();
+	}
+
+	//Precondition: A finished solve
+	//Postcondition: Returns how many cells were resolved by both sides together
+	public int getExpanded()
+	{
+		return expanded;
+	}
+
+	//Precondition: One side of the search
+	//Postcondition: Removes stale entries (cells already resolved on that side) from the top of its frontier and
+	//				 returns whether anything is left in it
+	private boolean dropResolved(int side)
+	{
+		while (!frontier[side].isEmpty() && reach[side].isMarked(frontier[side].peek()))
+		{
+			frontier[side].poll();
+		}
+		return !frontier[side].isEmpty();
+	}
+
+	//Precondition: A side of the search and the unresolved vertex with the lowest priority on that side
+	//Postcondition: Resolves the vertex, relaxes its edges on that side and checks every edge for a better meeting point
+	private void expand(int side, Vertex current)
+	{
+		int other = 1 - side;
+		int from = current.getIndex();
+		reach[side].mark(from);
+		expanded++;
+
+		Edge[] edges = current.getNeighboringEdges();
+		for (int dir = 0; dir < edges.length; dir++)
+		{
+			if (edges[dir] == null)
+			{
+				continue;
+			}
+			Vertex next = edges[dir].getOtherLinkedVertex(current);
+			if (next.isWall())
+			{
+				continue;
+			}
+			int to = next.getIndex();
+			int value = reach[side].get(from) + edges[dir].getDistance();
+			if (!reach[side].isMarked(to) && value < reach[side].get(to))
+			{
+				reach[side].set(to, value);
+				direction[side].set(to, Vertex.getOppositeDirection(dir));
+				frontier[side].add(to, getPriority(side, next));
+			}
+			if (reach[other].get(to) != Integer.MAX_VALUE && value + reach[other].get(to) < best)
+			{
+				best = value + reach[other].get(to);
+				meetFrom = side == FORWARD ? from : to;
+				meetTo = side == FORWARD ? to : from;
+			}
+		}
+	}
+
+	//Precondition: A side of the search and a vertex whose reach value on that side has just been set
+	//Postcondition: Returns the vertex's priority in that side's frontier, in units of half an edge
+	private int getPriority(int side, Vertex v)
+	{
+		int priority = 2 * reach[side].get(v.getIndex());
+		if (aStar)
+		{
+			int potential = distance(v, grid.getFinish()) - distance(v, grid.getStart());
+			priority += side == FORWARD ? potential : -potential;
+		}
+		return priority;
+	}
+
+	//Precondition: Two vertices of the grid
+	//Postcondition: Returns the Manhattan distance between them in edge lengths
+	private int distance(Vertex a, Vertex b)
+	{
+		int width = grid.getWidth();
+		int dx = Math.abs(a.getIndex() % width - b.getIndex() % width);
+		int dy = Math.abs(a.getIndex() / width - b.getIndex() / width);
+		return (dx + dy) * Vertex.VERTEX_DIST;
+	}
+
+	//Precondition: The two sides have met
+	//Postcondition: Returns the forward half of the route (start to meetFrom) joined to the backward half (meetTo to finish)
+	private ArrayList<Vertex> buildPath()
+	{
+		ArrayList<Vertex> path = new ArrayList<Vertex>();
+		Vertex current = grid.getVertex(meetFrom);
+		while (current != grid.getStart())
+		{
+			path.add(current);
+			current = current.getNeighbor(direction[FORWARD].get(current.getIndex()));
+		}
+		path.add(current);
+		Collections.reverse(path);
+
+		if (meetTo != meetFrom)
+		{
+			current = grid.getVertex(meetTo);
+			while (current != grid.getFinish())
+			{
+				path.add(current);
+				current = current.getNeighbor(direction[BACKWARD].get(current.getIndex()));
+			}
+			path.add(current);
+		}
+		return path;
+	}
+}
@@ -1,146 +1,478 @@
 import java.io.*; 
-import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.BitSet;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.*;
 
+import java.awt.BorderLayout;
 import java.awt.Dimension;
-import java.awt.GridLayout;
-import java.awt.Rectangle;
 import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
 public class ButtonGrid 
 {
-	/* This class creates the GUI and ButtonGrids that represent the individual puzzles and allows
-	 * the user to open new puzzles, have the computer solve for the shortest path, and change the
-	 * locations of the start and end points.  
+	/* This class creates the GUI that shows the puzzles and allows the user to open new puzzles, have the
+	 * computer solve for the shortest path, and change the locations of the start and end points. The puzzle
+	 * is drawn by a single PuzzleView, and the same window is reused for every puzzle that is opened.
+	 *
+	 * Solves run on a background thread so the window keeps responding. While one runs, a line below the puzzle
+	 * shows how far it has got, Puzzle > Cancel stops it, and the menu items that would change the puzzle are
+	 * disabled. The path is only drawn once the solve has finished. Puzzles are opened on a background thread in the
+	 * same way, read once into whichever of a Grid or a FlatGrid will be shown.
+	 *
+	 * With Puzzle > Animate Search checked, a Dijkstra or A* solve publishes every cell it resolves or reaches to a
+	 * SearchEventRing, and the view drains it FRAME_RATE times a second and tints those cells. The solve never waits
+	 * for the drawing, so the animation costs the search little more than writing each event into the ring.
+	 *
+	 * The view sits in a scroll pane, with a PuzzleMinimap of the whole puzzle beside it, and the View menu zooms it.
+	 * A Grid holds an object for every cell, close to GRID_BYTES_PER_CELL bytes of them, so a puzzle too big for that
+	 * to fit comfortably in the heap is opened as a FlatGrid instead. It can still be viewed and solved with
+	 * Dijkstra's algorithm, and its start and finish can still be moved.
 	 */
 	
+	public static final int FRAME_RATE = 60;
+	private static final int RING_CAPACITY = 1 << 20;		//events buffered between two frames before new ones are dropped
+	private static final int MAX_EVENTS_PER_FRAME = 1 << 18;	//keeps a frame short when the search is far ahead
+	private static final int GRID_BYTES_PER_CELL = 200;		//a Vertex, its Edges and its share of the arrays
+	private static final String FLAT_MODE_NAME = "Dijkstra (compact grid)";
+	
 	private Grid puzzle;
+	private FlatGrid flatPuzzle;				//the puzzle when it is too big for a Grid, otherwise null
     JFrame frame = new JFrame();	
-    JButton[][] grid;	//2-D Array of buttons
+    private PuzzleView view = new PuzzleView();	//draws the puzzle
+    private JLabel status = new JLabel(" ");	//progress of the current solve, or how the last one went
+    private SolveMonitor monitor = new SolveMonitor();
+    private JMenuItem[] editActions;			//menu items disabled while a solve runs
+    private JMenuItem cancelAction;
+    private JCheckBoxMenuItem animateAction;
+    private int[] eventBatch;					//events drained from the ring for one frame, created on first use
      
     //ButtonGrid Constructor
-    //Creates a basic grid of buttons
+    //Creates an empty window the size of a 10 by 10 puzzle
     public ButtonGrid()
     {
-       	//Sets the dimensions for the ButtonGrid
-       	frame.setLayout(new GridLayout(10, 10));
         JMenuBar menuBar = new JMenuBar();
         frame.setJMenuBar(menuBar);
         
-        
-        
         //Adds a file and puzzle drop down to the menu bar
         JMenu fileMenu = new JMenu("File");
         JMenu puzzleMenu = new JMenu("Puzzle");
+        JMenu viewMenu = new JMenu("View");
         menuBar.add(fileMenu);
         menuBar.add(puzzleMenu);
+        menuBar.add(viewMenu);
                 
         //Creates menu items and adds actionlisteners to them
         JMenuItem openAction = new JMenuItem("Open");
         JMenuItem exitAction = new JMenuItem("Exit");
         JMenuItem solveAction = new JMenuItem("Solve");
+        JMenuItem solveAStarAction = new JMenuItem("Solve with A*");
         JMenuItem newStartAction = new JMenuItem("New Start");
         JMenuItem newFinishAction = new JMenuItem("New Finish");
+        cancelAction = new JMenuItem("Cancel");
+        animateAction = new JCheckBoxMenuItem("Animate Search");
+        JMenuItem zoomInAction = new JMenuItem("Zoom In");
+        JMenuItem zoomOutAction = new JMenuItem("Zoom Out");
+        JMenuItem fitAction = new JMenuItem("Fit to Window");
         openAction.addActionListener(new MenuActionListener(this));
         exitAction.addActionListener(new MenuActionListener(this));
         solveAction.addActionListener(new MenuActionListener(this));
+        solveAStarAction.addActionListener(new MenuActionListener(this));
         newStartAction.addActionListener(new MenuActionListener(this));
         newFinishAction.addActionListener(new MenuActionListener(this));
+        cancelAction.addActionListener(new MenuActionListener(this));
+        zoomInAction.addActionListener(new MenuActionListener(this));
+        zoomOutAction.addActionListener(new MenuActionListener(this));
+        fitAction.addActionListener(new MenuActionListener(this));
+        cancelAction.setEnabled(false);
+        editActions = new JMenuItem[] {openAction, solveAction, solveAStarAction, newStartAction, newFinishAction};
              
         //Adds menu items to the drop-down menus
         fileMenu.add(openAction);
         fileMenu.addSeparator();
         fileMenu.add(exitAction);
         puzzleMenu.add(solveAction);
+        puzzleMenu.add(solveAStarAction);
         puzzleMenu.add(newStartAction);
         puzzleMenu.add(newFinishAction);
+        puzzleMenu.addSeparator();
+        puzzleMenu.add(animateAction);
+        puzzleMenu.add(cancelAction);
+        viewMenu.add(zoomInAction);
+        viewMenu.add(zoomOutAction);
+        viewMenu.add(fitAction);
            
-        //Creates the grid of buttons with the default size being 10 by 10
-        grid = new JButton[10][10];
-        for(int y = 0; y < 10; y++)
-        {
-           	for(int x = 0; x < 10; x++)
-            {
-           		grid[y][x] = new JButton(""); 
-                frame.add(grid[y][x]);
-            }
-        }            
+        JScrollPane scroll = new JScrollPane(view);
+        JPanel side = new JPanel(new BorderLayout());
+        side.add(new PuzzleMinimap(view, scroll.getViewport()), BorderLayout.NORTH);
+        frame.add(scroll, BorderLayout.CENTER);
+        frame.add(side, BorderLayout.EAST);
+        frame.add(status, BorderLayout.SOUTH);
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.pack(); 
-        frame.setBounds(new Rectangle(330, 360));
         centerOnScreen();
         frame.setVisible(true); 
     }
         
     //ButtonGrid Constructor
-    //Creates a grid that represents the puzzle
-    public ButtonGrid(Grid p, String[] s) 
+    //Creates a window that shows the puzzle
+    public ButtonGrid(Grid p) 
     {         	
+    	this();
+    	setGrid(p);
+    }
+
+    //Precondition: A puzzle
+    //Postcondition: The window shows the puzzle and is resized to fit it, as far as the screen allows
+    public void setGrid(Grid p)
+    {
     	puzzle = p;
-        	
-        //Sets the dimensions for the ButtonGrid according to the puzzle size
-        frame.setLayout(new GridLayout(s.length, s[0].length()));
-        JMenuBar menuBar = new JMenuBar();
-        frame.setJMenuBar(menuBar);
-        
-        //Creates menu items
-        JMenu fileMenu = new JMenu("File");
-        JMenu puzzleMenu = new JMenu("Puzzle");
-        menuBar.add(fileMenu);
-        menuBar.add(puzzleMenu);
-                
-        //Creates menu items and adds actionlisteners to them
-        JMenuItem openAction = new JMenuItem("Open");
-        JMenuItem exitAction = new JMenuItem("Exit");
-        JMenuItem solveAction = new JMenuItem("Solve");
-        JMenuItem newStartAction = new JMenuItem("New Start");
-        JMenuItem newFinishAction = new JMenuItem("New Finish");
-        openAction.addActionListener(new MenuActionListener(this));
-        exitAction.addActionListener(new MenuActionListener(this));
-        solveAction.addActionListener(new MenuActionListener(this));
-        newStartAction.addActionListener(new MenuActionListener(this));
-        newFinishAction.addActionListener(new MenuActionListener(this));
-             
-        //Adds menu items to the drop-down menus	
-        fileMenu.add(openAction);
-        fileMenu.addSeparator();
-        fileMenu.add(exitAction);
-        puzzleMenu.add(solveAction);
-        puzzleMenu.add(newStartAction);
-        puzzleMenu.add(newFinishAction);
-                
-        //Create the button matrix and size it according to the puzzle
-        grid = new JButton[s.length][s[0].length()];
-        for(int y = 0; y < s.length; y++)
-        {
-        	for(int x = 0; x < s[0].length(); x++)
-            {
-        		grid[y][x] = new JButton("");
-                frame.add(grid[y][x]); 
-            }
-        }
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.pack(); 
-        frame.setVisible(true); 
+    	flatPuzzle = null;
+    	p.setSolveMonitor(monitor);
+    	showLayout(p);
+    }
+
+    //Precondition: A puzzle too big to hold as a Grid
+    //Postcondition: The window shows the puzzle and is resized to fit it, as far as the screen allows
+    public void setFlatGrid(FlatGrid p)
+    {
+    	puzzle = null;
+    	flatPuzzle = p;
+    	p.setSolveMonitor(monitor);
+    	showLayout(p);
+    }
+
+    //Precondition: A puzzle file in the text or the binary format, and no solve is running
+    //Postcondition: Starts reading the puzzle on a background thread and returns at once. When it has been read it is
+    //				 shown, as a Grid if there is room in the heap for one and as a FlatGrid otherwise. If it cannot be
+    //				 read, the puzzle shown before stays and a dialog says why.
+    public void open(final File file)
+    {
+    	final String shown = status.getText();
+    	setEditable(false);
+    	status.setText("Opening " + file.getName());
+    	new SwingWorker<PuzzleLayout, Object>()
+    	{
+    		protected PuzzleLayout doInBackground() throws IOException
+    		{
+    			return load(file);
+    		}
+    		
+    		protected void done()
+    		{
+    			setEditable(true);
+    			try
+    			{
+    				PuzzleLayout p = get();
+    				if (p instanceof Grid)
+    				{
+    					setGrid((Grid) p);
+    				}
+    				else
+    				{
+    					setFlatGrid((FlatGrid) p);
+    				}
+    			}
+    			catch (InterruptedException i)
+    			{
+    				status.setText(shown);
+    				Thread.currentThread().interrupt();
+    			}
+    			catch (ExecutionException e)
+    			{
+    				status.setText(shown);
+    				if (e.getCause() instanceof IOException)
+    				{
+    					//a missing file, an unreadable one or a broken binary header
+    					JOptionPane.showMessageDialog(frame, "Error: " + e.getCause().getMessage());
+    				}
+    				else
+    				{
+    					//a file that is not a puzzle at all, or one too big for the heap even as a FlatGrid
+    					JOptionPane.showMessageDialog(frame, "Error: " + file.getName() + " could not be opened: "
+    							+ e.getCause());
+    				}
+    			}
+    		}
+    	}.execute();
+    }
+
+    //Precondition: A puzzle file in the text or the binary format
+    //Postcondition: Reads the puzzle once and returns it, as a Grid if there is room in the heap for one and as a
+    //				 FlatGrid otherwise. A text file has at least one byte per cell, so its length bounds the size of
+    //				 the puzzle before it is read. The binary format has no cell costs, so a Grid can be built from the
+    //				 FlatGrid once it is known to fit.
+    private static PuzzleLayout load(File file) throws IOException
+    {
+    	long room = Runtime.getRuntime().maxMemory() / 2 / GRID_BYTES_PER_CELL;
+    	if (!FlatGrid.isBinary(file))
+    	{
+    		return file.length() <= room ? Grid.load(file) : FlatGrid.load(file);
+    	}
+    	FlatGrid flat = FlatGrid.load(file);
+    	return flat.getCellCount() <= room ? new Grid(flat) : flat;
     }
 
-    //Precondition: Requires the x and y coordinates of the button
-    //Postcondition: Returns the button that corresponds with the provided coordinates
-    public JButton getButton(int x, int y)
+    //Precondition: A puzzle that has been set
+    //Postcondition: Shows the puzzle and resizes the window to fit it, as far as the screen allows
+    private void showLayout(PuzzleLayout p)
     {
-    	return grid[x][y];
+    	view.setPuzzle(p);
+    	status.setText(p.getWidth() + " x " + p.getHeight() + (flatPuzzle != null ? " (compact grid)" : ""));
+    	frame.pack();
+    	Dimension dim = Toolkit.getDefaultToolkit().getScreenSize();
+    	frame.setSize(Math.min(frame.getWidth(), dim.width), Math.min(frame.getHeight(), dim.height));
+    	centerOnScreen();
     }
         
     //Precondition: The button grid must have a reference to the puzzle grid
-    //Postcondition: Returns the puzzle grid
+    //Postcondition: Returns the puzzle grid, or null if the puzzle was opened as a FlatGrid
     public Grid getGrid()
     {
     	return puzzle;
     } 
+
+    //Precondition: None
+    //Postcondition: Returns whether a puzzle has been opened, as either a Grid or a FlatGrid
+    public boolean hasPuzzle()
+    {
+    	return puzzle != null || flatPuzzle != null;
+    }
+
+    //Precondition: A puzzle is shown and no solve is running, and the coordinates of a cell
+    //Postcondition: Moves the start there if it is an empty cell, redraws the puzzle and returns whether it moved
+    public boolean setStart(int x, int y)
+    {
+    	boolean moved = puzzle != null ? puzzle.setStart(x, y) : flatPuzzle.setStart(x, y);
+    	if (moved)
+    	{
+    		showPuzzle();
+    	}
+    	else if (puzzle == null)
+    	{
+    		//a Grid shows this itself
+    		JOptionPane.showMessageDialog(frame, "Start must be set to an empty location.");
+    	}
+    	return moved;
+    }
+
+    //Precondition: A puzzle is shown and no solve is running, and the coordinates of a cell
+    //Postcondition: Moves the finish there if it is an empty cell, redraws the puzzle and returns whether it moved
+    public boolean setFinish(int x, int y)
+    {
+    	boolean moved = puzzle != null ? puzzle.setFinish(x, y) : flatPuzzle.setFinish(x, y);
+    	if (moved)
+    	{
+    		showPuzzle();
+    	}
+    	else if (puzzle == null)
+    	{
+    		//a Grid shows this itself
+    		JOptionPane.showMessageDialog(frame, "Finish must be set to an empty location.");
+    	}
+    	return moved;
+    }
+
+    //Precondition: None
+    //Postcondition: Returns the puzzle being shown, as a Grid or a FlatGrid, or null if there is none
+    public PuzzleLayout getPuzzle()
+    {
+    	return view.getPuzzle();
+    }
+
+    //Precondition: None
+    //Postcondition: Returns the component that draws the puzzle
+    public PuzzleView getView()
+    {
+    	return view;
+    }
+
+    //Precondition: A puzzle is shown
+    //Postcondition: Redraws the cells that changed in the puzzle, such as a moved start or finish, without a path
+    public void showPuzzle()
+    {
+    	view.update();
+    	view.setPath(null);
+    }
+
+    //Precondition: A bitset of the vertex indexes on the solution path of the puzzle shown (see Grid.getPathCells)
+    //Postcondition: Draws the path over the puzzle, redrawing only the cells that changed
+    public void showSolution(BitSet path)
+    {
+    	view.setPath(path);
+    }
+    
+    //Precondition: A puzzle is shown and no solve is running, and one of the solve modes defined in Grid
+    //Postcondition: Starts solving the puzzle on a background thread and returns at once. When the solve ends the
+    //				 path and its statistics are shown, or an error if there is no path. A FlatGrid is always solved
+    //				 with Dijkstra's algorithm.
+    public void solve(final int mode)
+    {
+    	final Grid solving = puzzle;
+    	final FlatGrid flatSolving = flatPuzzle;
+    	final String name = flatSolving != null ? FLAT_MODE_NAME : Grid.MODE_NAMES[mode];
+    	final SearchEventRing ring = animateAction.isSelected() ? new SearchEventRing(RING_CAPACITY) : null;
+    	monitor.reset();
+    	setSolving(true);
+    	status.setText("Solving with " + name);
+    	if (ring != null)
+    	{
+    		if (eventBatch == null)
+    		{
+    			eventBatch = new int[1 << 14];
+    		}
+    		view.setPath(null);
+    		setSearchEvents(ring);
+    	}
+    	
+    	//the progress is read from the monitor a few times a second rather than sent for every cell, and the
+    	//animation is drawn in batches once a frame
+    	final Timer progress = new Timer(ring == null ? 100 : 1000 / FRAME_RATE, new ActionListener()
+    	{
+    		public void actionPerformed(ActionEvent a)
+    		{
+    			if (ring != null)
+    			{
+    				drawEvents(ring);
+    			}
+    			status.setText(String.format("Solving with %s: %,d cells resolved, frontier at distance %,d",
+    					name, monitor.getResolved(), monitor.getDistance()));
+    		}
+    	});
+    	progress.start();
+    	
+    	new SwingWorker<BitSet, Object>()
+    	{
+    		private SolveStats stats;
+    		
+    		protected BitSet doInBackground()
+    		{
+    			if (flatSolving != null)
+    			{
+    				long began = System.nanoTime();
+    				try
+    				{
+    					BitSet cells = new BitSet(flatSolving.getCellCount());
+    					for (int cell: flatSolving.getPath())
+    					{
+    						cells.set(cell);
+    					}
+    					return cells;
+    				}
+    				finally
+    				{
+    					stats = new SolveStats(name, flatSolving.getExpanded(), System.nanoTime() - began);
+    				}
+    			}
+    			try
+    			{
+    				return solving.getPathCells(solving.getPath(mode));
+    			}
+    			finally
+    			{
+    				stats = solving.getSolveStats();
+    			}
+    		}
+    		
+    		protected void done()
+    		{
+    			progress.stop();
+    			setSolving(false);
+    			if (ring != null)
+    			{
+    				setSearchEvents(null);
+    			}
+    			try
+    			{
+    				BitSet path = get();
+    				showSolution(path);
+    				status.setText(stats.toString() + (ring != null && ring.getDropped() > 0 
+    						? String.format(", %,d animation events dropped", ring.getDropped()) : ""));
+    				JOptionPane.showMessageDialog(frame, "Path Length: " + (path.cardinality() - 1) + "\nCells Expanded: " 
+    						+ stats.getExpanded() + "\nSolved With: " + stats.getStrategy());
+    			}
+    			catch (InterruptedException i)
+    			{
+    			}
+    			catch (ExecutionException e)
+    			{
+    				if (e.getCause() instanceof SolveCancelledException)
+    				{
+    					status.setText(String.format("Solve cancelled after %,d cells", monitor.getResolved()));
+    				}
+    				else if (e.getCause() instanceof UnsolvablePuzzleException)
+    				{
+    					status.setText(stats.toString());
+    					JOptionPane.showMessageDialog(frame, "Error: Puzzle has no solution.");
+    				}
+    				else if (e.getCause() instanceof IllegalStateException)
+    				{
+    					//a FlatGrid with cell costs, or without a start or finish
+    					status.setText(" ");
+    					JOptionPane.showMessageDialog(frame, "Error: " + e.getCause().getMessage());
+    				}
+    				else
+    				{
+    					throw new RuntimeException(e.getCause());
+    				}
+    			}
+    		}
+    	}.execute();
+    }
+
+    //Precondition: The ring an animated solve should publish to, or null to stop publishing
+    //Postcondition: The puzzle being shown publishes its search events to the ring
+    private void setSearchEvents(SearchEventRing ring)
+    {
+    	if (flatPuzzle != null)
+    	{
+    		flatPuzzle.setSearchEvents(ring);
+    	}
+    	else
+    	{
+    		puzzle.setSearchEvents(ring);
+    	}
+    }
+
+    //Precondition: The ring an animated solve is publishing to
+    //Postcondition: Draws the events published since the last frame, up to MAX_EVENTS_PER_FRAME of them
+    private void drawEvents(SearchEventRing ring)
+    {
+    	int drawn = 0;
+    	int count;
+    	while (drawn < MAX_EVENTS_PER_FRAME && (count = ring.drain(eventBatch)) > 0)
+    	{
+    		view.showEvents(eventBatch, count);
+    		drawn += count;
+    	}
+    }
+
+    //Precondition: None
+    //Postcondition: The running solve, if any, stops at its next progress report
+    public void cancelSolve()
+    {
+    	monitor.cancel();
+    	status.setText("Cancelling");
+    }
+
+    //Precondition: Whether a solve is starting or has ended
+    //Postcondition: Enables either the Cancel menu item or the ones that change the puzzle
+    private void setSolving(boolean solving)
+    {
+    	setEditable(!solving);
+    	cancelAction.setEnabled(solving);
+    }
+
+    //Precondition: Whether the puzzle may be changed, which it may not while one is being solved or opened
+    //Postcondition: Enables or disables the menu items that change the puzzle
+    private void setEditable(boolean editable)
+    {
+    	for (JMenuItem item: editActions)
+    	{
+    		item.setEnabled(editable);
+    	}
+    }
     
     //Precondition: An initialized frame
     //Postcondition: Centers the frame on the screen
@@ -183,8 +515,8 @@ class MenuActionListener implements ActionListener
 		//Checks if open has been selected
 		if (command.equals("Open"))
 		{
-			//Asks for a file to be opened and then opens the puzzle. If file is not present, opens a
-			//window that explains the error.
+			//Asks for a file to be opened and then opens the puzzle in the background. If file is not present,
+			//ButtonGrid.open opens a window that explains the error.
 			try
 			{
 				String fileName;
@@ -193,21 +525,11 @@ class MenuActionListener implements ActionListener
 				{
 					throw new ExitException();
 				}
-				Scanner scan = new Scanner(new File(fileName));
-				Grid openedGrid = new Grid(scan);
-				if (reference.getButton(0, 0).getIcon() == null)
-				{
-					reference.frame.dispose();
-				}
-				openedGrid.drawPuzzle();
+				reference.open(new File(fileName));
 			}
 			catch (ExitException e)
 			{
 			}
-			catch (IOException i)
-			{
-				JOptionPane.showMessageDialog(null, "Error: File does not exist within the project folder.");
-			}
 		}
 		//Checks if exit has been selected
 		else if (command.equals("Exit"))
@@ -215,29 +537,41 @@ class MenuActionListener implements ActionListener
 			//Closes the frame
 			reference.frame.dispose();
 		}
-		//Checks if solve has been selected
-		else if (command.equals("Solve"))
+		//Checks if solve (with Dijkstra's Algorithm or A*) has been selected
+		else if (command.equals("Solve") || command.equals("Solve with A*"))
 		{
-			//Solves and displays the path. If unsolvable, opens a dialog box that explains the error
+			//Starts solving in the background; the path, or a dialog box that explains why there is none, is shown
+			//when it finishes
 			try
 			{
-				if (reference.getButton(0, 0).getIcon() == null)
+				if (!reference.hasPuzzle())
 				{
 					throw new NullPointerException();
 				}
-				ArrayList<Vertex> path = reference.getGrid().getPath();
-				reference.frame.dispose();
-				reference.getGrid().drawSolution(path);
-				JOptionPane.showMessageDialog(null, "Path Length: " + (path.size() - 1));
+				reference.solve(command.equals("Solve") ? Grid.DIJKSTRA : Grid.A_STAR);
 			}
 			catch (NullPointerException n)
 			{
 				JOptionPane.showMessageDialog(null, "Error: No valid puzzle has been opened.");
 			}
-			catch (UnsolvablePuzzleException u)
-			{
-				JOptionPane.showMessageDialog(null, "Error: Puzzle has no solution.");
-			}
+		}
+		//Checks if cancel has been selected
+		else if (command.equals("Cancel"))
+		{
+			reference.cancelSolve();
+		}
+		//Checks if one of the zoom items has been selected
+		else if (command.equals("Zoom In"))
+		{
+			reference.getView().zoomIn();
+		}
+		else if (command.equals("Zoom Out"))
+		{
+			reference.getView().zoomOut();
+		}
+		else if (command.equals("Fit to Window"))
+		{
+			reference.getView().zoomToFit();
 		}
 		//Checks if new start has been selected
 		else if (command.equals("New Start"))
@@ -247,7 +581,7 @@ class MenuActionListener implements ActionListener
 			//displayed.
 			try
 			{
-				if (reference.getButton(0, 0).getIcon() == null)
+				if (!reference.hasPuzzle())
 				{
 					throw new NullPointerException();
 				}
@@ -265,13 +599,9 @@ class MenuActionListener implements ActionListener
 				}
 				x = Integer.parseInt(xcoor);
 				y = Integer.parseInt(ycoor);
-				if (x <= reference.getGrid().getWidth() && y <= reference.getGrid().getHeight())
+				if (x >= 0 && y >= 0 && x < reference.getPuzzle().getWidth() && y < reference.getPuzzle().getHeight())
 				{
-					if (reference.getGrid().setStart(x, y))
-					{
-						reference.frame.dispose();
-						reference.getGrid().drawPuzzle();						
-					}
+					reference.setStart(x, y);
 				}
 				else 
 				{
@@ -303,7 +633,7 @@ class MenuActionListener implements ActionListener
 			//displayed.
 			try
 			{
-				if (reference.getButton(0, 0).getIcon() == null)
+				if (!reference.hasPuzzle())
 				{
 					throw new NullPointerException();
 				}
@@ -321,13 +651,9 @@ class MenuActionListener implements ActionListener
 				}
 				x = Integer.parseInt(xcoor);
 				y = Integer.parseInt(ycoor);
-				if (x <= reference.getGrid().getWidth() && y <= reference.getGrid().getHeight())
+				if (x >= 0 && y >= 0 && x < reference.getPuzzle().getWidth() && y < reference.getPuzzle().getHeight())
 				{
-					if (reference.getGrid().setFinish(x, y))
-					{
-						reference.frame.dispose();
-						reference.getGrid().drawPuzzle();						
-					}
+					reference.setFinish(x, y);
 				}
 				else 
 				{
@@ -0,0 +1,111 @@
+import java.util.Arrays;
+
+public class CellHeap
+{
+	/* This class is the frontier used by FlatGrid. Cells are plain int indexes, so instead of tracking every
+	 * cell's slot for decrease-key, a cell is simply pushed again whenever its reach value drops and the stale
+	 * copy is skipped when it comes out. Each entry packs the reach value and the cell into one long, so the
+	 * heap is a single primitive array that only ever grows with the frontier, never with the whole grid.
+	 */
+
+	private long[] heap;
+	private int size;
+
+	//CellHeap Constructor
+	//Creates an empty heap with room for a small frontier; it grows as needed
+	public CellHeap()
+	{
+		heap = new long[16];
+		size = 0;
+	}
+
+	//Precondition: An initialized heap
+	//Postcondition: Returns whether there are no cells left in the frontier
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	//Precondition: An initialized heap
+	//Postcondition: Returns the number of entries in the frontier, stale ones included
+	public int size()
+	{
+		return size;
+	}
+
+	//Precondition: A cell index and its (non-negative) priority
+	//Postcondition: The cell is added to the frontier with the given priority
+	public void add(int cell, int key)
+	{
+		if (size == heap.length)
+		{
+			heap = Arrays.copyOf(heap, size * 2);
+		}
+		long entry = ((long) key << 32) | (cell & 0xFFFFFFFFL);
+		int i = size++;
+		while (i > 0)
+		{
+			int parent = (i - 1) / 2;
+			if (heap[parent] <= entry)
+			{
+				break;
+			}
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = entry;
+	}
+
+	//Precondition: A non-empty heap
+	//Postcondition: Returns the cell at the top of the heap without removing it
+	public int peek()
+	{
+		return (int) heap[0];
+	}
+
+	//Precondition: A non-empty heap
+	//Postcondition: Returns the priority of the entry at the top of the heap without removing it
+	public int peekKey()
+	{
+		return (int) (heap[0] >>> 32);
+	}
+
+	//Precondition: A non-empty heap
+	//Postcondition: Removes the entry with the lowest priority and returns its cell
+	public int poll()
+	{
+		long top = heap[0];
+		long entry = heap[--size];
+		int i = 0;
+		while (true)
+		{
+			int child = 2 * i + 1;
+			if (child >= size)
+			{
+				break;
+			}
+			if (child + 1 < size && heap[child + 1] < heap[child])
+			{
+				child++;
+			}
+			if (heap[child] >= entry)
+			{
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+		}
+		if (size > 0)
+		{
+			heap[i] = entry;
+		}
+		return (int) top;
+	}
+
+	//Precondition: An initialized heap
+	//Postcondition: Empties the heap
+	public void clear()
+	{
+		size = 0;
+	}
+}
@@ -0,0 +1,85 @@
+import java.util.Arrays;
+
+public class CellValues
+{
+	/* This class is an int value for every cell of a puzzle, kept between solves so that a solve neither allocates
+	 * nor clears an array in proportion to the puzzle. Each value is stamped with the generation it was set in, and
+	 * clear only starts a new generation, so every value set before it reads back as the default the clear was given.
+	 * It is the index-based version of the generation Grid stamps on its vertices (see Vertex.resetFor).
+	 *
+	 * A value set in the current generation can also be marked, which the solvers use for cells they have resolved.
+	 * The mark is the lowest bit of the stamp, so it costs no more memory and is cleared along with the values.
+	 */
+
+	private int[] values;
+	private int[] stamps;		//generation << 1 of the solve that last set each value, plus 1 once it is marked
+	private int generation;
+	private int fallback;		//what a value not set in this generation reads as, given to the last clear
+
+	//CellValues Constructor
+	//Precondition: The number of cells
+	//Postcondition: Every cell is 0 and none is marked
+	public CellValues(int cells)
+	{
+		values = new int[cells];
+		stamps = new int[cells];
+		generation = 1;
+	}
+
+	//Precondition: None
+	//Postcondition: Returns the number of cells
+	public int size()
+	{
+		return values.length;
+	}
+
+	//Precondition: The value every cell should have until it is set
+	//Postcondition: Every cell has that default value and none is marked. Takes constant time, apart from once every
+	//				 2^30 calls, when the stamps wrap around and are all cleared.
+	public void clear(int fallback)
+	{
+		this.fallback = fallback;
+		generation++;
+		if (generation == 1 << 30)
+		{
+			Arrays.fill(stamps, 0);
+			generation = 1;
+		}
+	}
+
+	//Precondition: The index of a cell
+	//Postcondition: Returns its value, or the default if it has not been set since the last clear
+	public int get(int cell)
+	{
+		return stamps[cell] >>> 1 == generation ? values[cell] : fallback;
+	}
+
+	//Precondition: The index of a cell and a value
+	//Postcondition: The cell has the value, and keeps its mark if it had one
+	public void set(int cell, int value)
+	{
+		values[cell] = value;
+		if (stamps[cell] >>> 1 != generation)
+		{
+			stamps[cell] = generation << 1;
+		}
+	}
+
+	//Precondition: The index of a cell
+	//Postcondition: Returns whether it has been marked since the last clear
+	public boolean isMarked(int cell)
+	{
+		return stamps[cell] == (generation << 1 | 1);
+	}
+
+	//Precondition: The index of a cell
+	//Postcondition: The cell is marked. A cell that has not been set since the last clear gets the default value.
+	public void mark(int cell)
+	{
+		if (stamps[cell] >>> 1 != generation)
+		{
+			values[cell] = fallback;
+		}
+		stamps[cell] = generation << 1 | 1;
+	}
+}
@@ -0,0 +1,935 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ContractionHierarchy
+{
+	/* This class answers many start/finish questions about one fixed puzzle far faster than solving each from scratch.
+	 * It is built once from a Grid by contracting the open cells one at a time, least important first: a cell is
+	 * taken out of the graph and, wherever the only shortest way between two of its remaining neighbors ran through
+	 * it, a shortcut edge as long as that way is added between them. Dead ends and corridor cells go first and cost
+	 * nothing; the cells that many shortest paths cross go last. Every cell keeps the edges it had when it was
+	 * contracted, which all lead to cells contracted after it ("upward").
+	 *
+	 * A question is then a Dijkstra search from the start and one from the finish that only ever follow upward edges
+	 * and meet at the most important cell of the shortest path, so each settles a few hundred cells instead of the
+	 * whole puzzle. Shortcuts remember the cell they skip, so the path is unpacked back into single steps afterwards.
+	 *
+	 * The hierarchy can be saved next to its puzzle and loaded back in place of building it again (all numbers
+	 * little-endian):
+	 *
+	 * 	- bytes 0-3: the characters "CHIX"
+	 * 	- bytes 4-7: the format version, INDEX_VERSION
+	 * 	- bytes 8-15: width and height of the puzzle as ints
+	 * 	- bytes 16-23: the puzzle's Grid.getLayoutHash(), so an index is never used with a puzzle that has changed
+	 * 	- bytes 24-27: the number of edges, m
+	 * 	- then width * height + 1 ints where each cell's upward edges start, and m ints each of edge targets, edge
+	 * 	  lengths and skipped cells (-1 for an edge of the puzzle itself)
+	 *
+	 * A hierarchy holds the state of the question being answered, so one should not be asked questions from two
+	 * threads at once.
+	 *
+	 * Usage: java ContractionHierarchy [-queries n] [-rebuild] puzzle...
+	 * Builds (or loads) the index of each puzzle, saving it as puzzle.ch, and reports the preprocessing time, the
+	 * index size and the latency of n random queries.
+	 */
+
+	public static final int INDEX_VERSION = 1;
+	private static final int INDEX_MAGIC = 'C' | 'H' << 8 | 'I' << 16 | 'X' << 24; //"CHIX" read as a little-endian int
+	private static final int INDEX_HEADER = 28; //bytes before the edge offsets
+	private static final int INFINITY = Integer.MAX_VALUE;
+
+	private int width, height;
+	private long layoutHash;
+	private int[] first;	//the upward edges of cell i are first[i] to first[i + 1] - 1
+	private int[] target;	//cell the edge leads to
+	private int[] length;
+	private int[] middle;	//cell a shortcut skips, or -1 for an edge of the puzzle
+
+	//state of the last question, one copy for the search from the start (0) and one for the search from the finish (1)
+	private int[][] dist;
+	private int[][] parent;	//edge a cell was reached by, which belongs to the cell it was reached from
+	private int[][] from;	//cell it was reached from
+	private int[][] seen;	//dist, parent and from of a cell are only set when seen equals query
+	private CellHeap[] heaps;
+	private int query;
+	private int settled;
+
+	//ContractionHierarchy Constructor
+	//Precondition: A grid
+	//Postcondition: Builds the hierarchy of the grid's current walls and cell costs
+	public ContractionHierarchy(Grid grid)
+	{
+		width = grid.getWidth();
+		height = grid.getHeight();
+		layoutHash = grid.getLayoutHash();
+		new Contractor(grid).contractAll();
+	}
+
+	//Used by load, which fills in the fields from a file
+	private ContractionHierarchy()
+	{
+	}
+
+	//Precondition: An index file written by save
+	//Postcondition: Returns the hierarchy stored in the file. Throws an IOException if it is not an index of a known
+	//				 version or its length does not match its header.
+	public static ContractionHierarchy load(File file) throws IOException
+	{
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try
+		{
+			FileChannel channel = in.getChannel();
+			if (channel.size() < INDEX_HEADER)
+			{
+				throw new IOException(file + " is not a version " + INDEX_VERSION + " index");
+			}
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, INDEX_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+			if (header.getInt(0) != INDEX_MAGIC || header.getInt(4) != INDEX_VERSION)
+			{
+				throw new IOException(file + " is not a version " + INDEX_VERSION + " index");
+			}
+			ContractionHierarchy h = new ContractionHierarchy();
+			h.width = header.getInt(8);
+			h.height = header.getInt(12);
+			h.layoutHash = header.getLong(16);
+			int edges = header.getInt(24);
+			long cells = (long) h.width * h.height;
+			if (h.width < 0 || h.height < 0 || cells >= Integer.MAX_VALUE || edges < 0
+					|| channel.size() != INDEX_HEADER + 4L * (cells + 1) + 12L * edges)
+			{
+				throw new IOException(file + " has a broken header");
+			}
+
+			long position = INDEX_HEADER;
+			h.first = new int[(int) cells + 1];
+			position = read(channel, position, h.first);
+			h.target = new int[edges];
+			position = read(channel, position, h.target);
+			h.length = new int[edges];
+			position = read(channel, position, h.length);
+			h.middle = new int[edges];
+			read(channel, position, h.middle);
+			return h;
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+	//Precondition: A file channel, where to start reading and the array to fill
+	//Postcondition: Fills the array from the file and returns the position just after it
+	private static long read(FileChannel channel, long position, int[] values) throws IOException
+	{
+		if (values.length > 0)
+		{
+			channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * values.length).order(ByteOrder.LITTLE_ENDIAN)
+					.asIntBuffer().get(values);
+		}
+		return position + 4L * values.length;
+	}
+
+	//Precondition: A file to write to
+	//Postcondition: Saves the hierarchy in the index format, which load can read back
+	public void save(File file) throws IOException
+	{
+		RandomAccessFile out = new RandomAccessFile(file, "rw");
+		try
+		{
+			FileChannel channel = out.getChannel();
+			channel.truncate(0);
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(INDEX_MAGIC).putInt(INDEX_VERSION).putInt(width).putInt(height).putLong(layoutHash)
+					.putInt(target.length);
+			for (int[] values: new int[][] {first, target, length, middle})
+			{
+				for (int value: values)
+				{
+					if (!buffer.hasRemaining())
+					{
+						write(channel, buffer);
+					}
+					buffer.putInt(value);
+				}
+			}
+			write(channel, buffer);
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+
+	//Precondition: A file channel and a buffer that has been filled from its start
+	//Postcondition: Writes everything put in the buffer to the channel and empties the buffer
+	private static void write(FileChannel channel, ByteBuffer buffer) throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	//Precondition: A puzzle file
+	//Postcondition: Returns the file its index is kept in, the puzzle's name with ".ch" added
+	public static File getIndexFile(File puzzle)
+	{
+		return new File(puzzle.getPath() + ".ch");
+	}
+
+	//Precondition: A grid
+	//Postcondition: Returns whether the hierarchy was built from a puzzle with the grid's size, walls and cell costs
+	public boolean matches(Grid grid)
+	{
+		return width == grid.getWidth() && height == grid.getHeight() && layoutHash == grid.getLayoutHash();
+	}
+
+	//Precondition: An initialized hierarchy
+	//Postcondition: Returns the number of upward edges, shortcuts included
+	public int getEdgeCount()
+	{
+		return target.length;
+	}
+
+	//Precondition: An initialized hierarchy
+	//Postcondition: Returns the number of shortcut edges added while contracting
+	public int getShortcutCount()
+	{
+		int count = 0;
+		for (int m: middle)
+		{
+			if (m != -1)
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	//Precondition: An initialized hierarchy
+	//Postcondition: Returns the size of the hierarchy in the index format, in bytes
+	public long getBytes()
+	{
+		return INDEX_HEADER + 4L * first.length + 12L * target.length;
+	}
+
+	//Precondition: A finished query
+	//Postcondition: Returns how many cells the two searches of that query settled
+	public int getSettled()
+	{
+		return settled;
+	}
+
+	//Precondition: The indexes (y * width + x) of a start and a finish cell
+	//Postcondition: Returns the length of the shortest path between them. Throws an UnsolvablePuzzleException if there
+	//				 is none.
+	public int getDistance(int start, int finish)
+	{
+		int meet = search(start, finish);
+		return dist[0][meet] + dist[1][meet];
+	}
+
+	//Precondition: The indexes (y * width + x) of a start and a finish cell
+	//Postcondition: Returns the cell indexes of a shortest path from the start to the finish, both included, with every
+	//				 shortcut unpacked into single steps. Throws an UnsolvablePuzzleException if there is none.
+	public int[] getPath(int start, int finish)
+	{
+		int meet = search(start, finish);
+
+		//the upward edges from the start to the meeting cell, collected backwards from the meeting cell
+		int[] up = new int[16];
+		int count = 0;
+		for (int cell = meet; cell != start; cell = from[0][cell])
+		{
+			if (count == up.length)
+			{
+				up = Arrays.copyOf(up, count * 2);
+			}
+			up[count++] = cell;
+		}
+
+		IntList path = new IntList();
+		path.add(start);
+		int cell = start;
+		for (int i = count - 1; i >= 0; i--)
+		{
+			unpack(cell, up[i], middle[parent[0][up[i]]], path);
+			cell = up[i];
+		}
+		for (cell = meet; cell != finish; cell = from[1][cell])
+		{
+			unpack(cell, from[1][cell], middle[parent[1][cell]], path);
+		}
+		return path.toArray();
+	}
+
+	//Precondition: The start and finish of a question
+	//Postcondition: Runs the two upward searches and returns the cell where the shortest path peaks. Throws an
+	//				 UnsolvablePuzzleException if the searches never meet.
+	private int search(int start, int finish)
+	{
+		if (dist == null)
+		{
+			int cells = first.length - 1;
+			dist = new int[2][cells];
+			parent = new int[2][cells];
+			from = new int[2][cells];
+			seen = new int[2][cells];
+			heaps = new CellHeap[] {new CellHeap(), new CellHeap()};
+		}
+		if (query == Integer.MAX_VALUE)
+		{
+			Arrays.fill(seen[0], 0);
+			Arrays.fill(seen[1], 0);
+			query = 0;
+		}
+		query++;
+		settled = 0;
+		heaps[0].clear();
+		heaps[1].clear();
+		reach(0, start, 0, -1, -1);
+		reach(1, finish, 0, -1, -1);
+
+		int best = start == finish ? 0 : INFINITY;
+		int meet = start == finish ? start : -1;
+		while (true)
+		{
+			//a search is done once nothing left in it could lead to a shorter meeting than the best one so far
+			boolean forward = !heaps[0].isEmpty() && heaps[0].peekKey() < best;
+			boolean backward = !heaps[1].isEmpty() && heaps[1].peekKey() < best;
+			if (!forward && !backward)
+			{
+				break;
+			}
+			int side = forward && (!backward || heaps[0].peekKey() <= heaps[1].peekKey()) ? 0 : 1;
+			int d = heaps[side].peekKey();
+			int cell = heaps[side].poll();
+			if (d != dist[side][cell])
+			{
+				//stale copy, the cell was reached again with a shorter distance
+				continue;
+			}
+			settled++;
+			if (seen[1 - side][cell] == query && d + dist[1 - side][cell] < best)
+			{
+				best = d + dist[1 - side][cell];
+				meet = cell;
+			}
+			if (isStalled(side, cell))
+			{
+				continue;
+			}
+			for (int e = first[cell]; e < first[cell + 1]; e++)
+			{
+				int next = target[e];
+				int nd = d + length[e];
+				if (seen[side][next] != query || nd < dist[side][next])
+				{
+					reach(side, next, nd, e, cell);
+				}
+			}
+		}
+
+		if (meet == -1)
+		{
+			throw new UnsolvablePuzzleException();
+		}
+		return meet;
+	}
+
+	//Precondition: A side of the search, a cell, its new distance and the edge and cell it was reached by
+	//Postcondition: Records the distance and adds the cell to that side's frontier
+	private void reach(int side, int cell, int d, int edge, int previous)
+	{
+		seen[side][cell] = query;
+		dist[side][cell] = d;
+		parent[side][cell] = edge;
+		from[side][cell] = previous;
+		heaps[side].add(cell, d);
+	}
+
+	//Precondition: A side of the search and a cell it has just settled
+	//Postcondition: Returns whether a more important neighbor already offers the cell a shorter way than the one it
+	//				 was settled with. Such a cell is not on a shortest path from this side, so its edges are not followed.
+	private boolean isStalled(int side, int cell)
+	{
+		for (int e = first[cell]; e < first[cell + 1]; e++)
+		{
+			int next = target[e];
+			if (seen[side][next] == query && dist[side][next] + length[e] < dist[side][cell])
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	//Precondition: The two ends of an edge, the cell it skips (-1 for none) and the path so far, which ends at the
+	//				 first end
+	//Postcondition: Adds every cell after the first end up to and including the second end to the path
+	private void unpack(int a, int b, int skipped, IntList path)
+	{
+		//each entry is two ends and the cell between them; the part closer to the start is always on top
+		IntList stack = new IntList();
+		stack.add(a);
+		stack.add(b);
+		stack.add(skipped);
+		while (stack.size() > 0)
+		{
+			int m = stack.pop();
+			int to = stack.pop();
+			int at = stack.pop();
+			if (m == -1)
+			{
+				path.add(to);
+			}
+			else
+			{
+				//the skipped cell was contracted before both ends, so both halves are among its upward edges
+				int second = findEdge(m, to);
+				int firstHalf = findEdge(m, at);
+				stack.add(m);
+				stack.add(to);
+				stack.add(middle[second]);
+				stack.add(at);
+				stack.add(m);
+				stack.add(middle[firstHalf]);
+			}
+		}
+	}
+
+	//Precondition: A cell and a cell contracted after it that it has an upward edge to
+	//Postcondition: Returns the shortest such edge
+	private int findEdge(int cell, int next)
+	{
+		int found = -1;
+		for (int e = first[cell]; e < first[cell + 1]; e++)
+		{
+			if (target[e] == next && (found == -1 || length[e] < length[found]))
+			{
+				found = e;
+			}
+		}
+		return found;
+	}
+
+	public static void main(String[] args)
+	{
+		System.setProperty("java.awt.headless", "true");
+
+		int queries = 10000;
+		boolean rebuild = false;
+		ArrayList<File> files = new ArrayList<File>();
+		try
+		{
+			for (int i = 0; i < args.length; i++)
+			{
+				if (args[i].equals("-queries"))
+				{
+					queries = Integer.parseInt(args[++i]);
+				}
+				else if (args[i].equals("-rebuild"))
+				{
+					rebuild = true;
+				}
+				else
+				{
+					files.add(new File(args[i]));
+				}
+			}
+		}
+		catch (RuntimeException e)
+		{
+			files.clear();
+		}
+		if (files.isEmpty() || queries < 1)
+		{
+			System.err.println("Usage: java ContractionHierarchy [-queries n] [-rebuild] puzzle...");
+			System.exit(1);
+		}
+
+		for (File f: files)
+		{
+			try
+			{
+				report(f, queries, rebuild);
+			}
+			catch (IOException e)
+			{
+				System.out.println(f.getPath() + "\terror " + e.getMessage());
+			}
+		}
+	}
+
+	//Precondition: A puzzle file, the number of random queries to time and whether an existing index should be ignored
+	//Postcondition: Loads the puzzle's index if it is up to date and otherwise builds and saves it, then times the
+	//				 queries and prints the results
+	private static void report(File f, int queries, boolean rebuild) throws IOException
+	{
+		Grid grid = Grid.load(f);
+		File indexFile = getIndexFile(f);
+		ContractionHierarchy h = null;
+		long time = System.nanoTime();
+		if (!rebuild && indexFile.exists())
+		{
+			try
+			{
+				h = load(indexFile);
+			}
+			catch (IOException e)
+			{
+				System.out.println(f.getPath() + "\t" + e.getMessage() + ", rebuilding it");
+			}
+			if (h != null && !h.matches(grid))
+			{
+				System.out.println(f.getPath() + "\t" + indexFile.getPath() + " is out of date, rebuilding it");
+				h = null;
+			}
+			else if (h != null)
+			{
+				System.out.println(f.getPath() + "\tloaded " + indexFile.getPath() + " in " + formatMillis(System.nanoTime() - time));
+			}
+		}
+		if (h == null)
+		{
+			time = System.nanoTime();
+			h = new ContractionHierarchy(grid);
+			time = System.nanoTime() - time;
+			h.save(indexFile);
+			System.out.println(f.getPath() + "\tpreprocessed in " + formatMillis(time) + "\t" + (h.getEdgeCount()
+					- h.getShortcutCount()) + " edges + " + h.getShortcutCount() + " shortcuts");
+		}
+		System.out.println(f.getPath() + "\tindex " + h.getBytes() + " bytes (" + String.format("%.1f", h.getBytes()
+				/ (double) (grid.getWidth() * grid.getHeight())) + " per cell)");
+
+		IntList open = new IntList();
+		for (int i = 0; i < grid.getWidth() * grid.getHeight(); i++)
+		{
+			if (!grid.getVertex(i).isWall())
+			{
+				open.add(i);
+			}
+		}
+		if (open.size() == 0)
+		{
+			return;
+		}
+		Random rand = new Random(42);
+		long[] distanceTimes = new long[queries];
+		long[] pathTimes = new long[queries];
+		long settledTotal = 0;
+		int unsolvable = 0;
+		for (int q = 0; q < queries; q++)
+		{
+			int start = open.get(rand.nextInt(open.size()));
+			int finish = open.get(rand.nextInt(open.size()));
+			try
+			{
+				time = System.nanoTime();
+				h.getDistance(start, finish);
+				distanceTimes[q] = System.nanoTime() - time;
+				settledTotal += h.getSettled();
+				time = System.nanoTime();
+				h.getPath(start, finish);
+				pathTimes[q] = System.nanoTime() - time;
+			}
+			catch (UnsolvablePuzzleException e)
+			{
+				distanceTimes[q] = System.nanoTime() - time;
+				pathTimes[q] = distanceTimes[q];
+				unsolvable++;
+			}
+		}
+		System.out.println(f.getPath() + "\t" + queries + " random queries (" + unsolvable + " unsolvable), "
+				+ settledTotal / queries + " cells settled on average\tdistance " + formatLatency(distanceTimes)
+				+ "\tpath " + formatLatency(pathTimes));
+
+		if (grid.getStart() != null && grid.getFinish() != null)
+		{
+			int start = grid.getStart().getIndex();
+			int finish = grid.getFinish().getIndex();
+			try
+			{
+				time = System.nanoTime();
+				int[] path = h.getPath(start, finish);
+				time = System.nanoTime() - time;
+				System.out.println(f.getPath() + "\tS to F length " + (path.length - 1) + " in " + formatMillis(time));
+			}
+			catch (UnsolvablePuzzleException e)
+			{
+				System.out.println(f.getPath() + "\tS to F unsolvable");
+			}
+		}
+	}
+
+	//Precondition: A duration in nanoseconds
+	//Postcondition: Returns the duration in milliseconds with three decimal places
+	private static String formatMillis(long nanos)
+	{
+		return String.format("%.3f ms", nanos / 1e6);
+	}
+
+	//Precondition: The durations of some queries in nanoseconds
+	//Postcondition: Sorts them and returns their average, median and 99th percentile in microseconds
+	private static String formatLatency(long[] nanos)
+	{
+		long total = 0;
+		for (long n: nanos)
+		{
+			total += n;
+		}
+		Arrays.sort(nanos);
+		return String.format("avg %.1f us, p50 %.1f us, p99 %.1f us", total / 1e3 / nanos.length,
+				nanos[nanos.length / 2] / 1e3, nanos[Math.min(nanos.length - 1, (int) (nanos.length * 0.99))] / 1e3);
+	}
+
+	private class Contractor
+	{
+		/* Builds the hierarchy. The graph of the cells not contracted yet is kept as one growable edge list per cell
+		 * (target, length and skipped cell). Cells come out of a queue ordered mainly by how many edges contracting
+		 * them would add minus how many it would remove, plus how many of their neighbors are already gone and how
+		 * deep the hierarchy below them is, which spreads the contraction evenly over open areas instead of letting
+		 * it eat its way through them from one side. A cell's place in the queue only goes stale when its
+		 * neighborhood changes, so it is checked again when it comes out and put back if it is no longer the cheapest.
+		 *
+		 * A shortcut is only needed if no other way between the two neighbors is as short. That is checked with a
+		 * small Dijkstra search (a witness search) that avoids the cell being contracted and gives up after
+		 * WITNESS_LIMIT cells; giving up early only ever adds a shortcut that was not needed.
+		 */
+
+		private static final int WITNESS_LIMIT = 64;		//cells a witness search settles before giving up
+		private static final int PRIORITY_OFFSET = 1 << 20;	//keeps queue keys positive, CellHeap needs that
+
+		private Grid grid;
+		private int[][] targets, lengths, middles;
+		private int[] degree;
+		private int[] removed;		//how many neighbors of the cell have been contracted
+		private int[] level;		//one more than the highest level of the cell's contracted neighbors
+		private int[] priority;
+		private boolean[] contracted;
+		private int[] witness;		//distances of the witness search, only set when reached equals search
+		private int[] reached;
+		private int[] wanted;		//the neighbors a witness search is looking for have wanted equal to search
+		private int search;
+		private CellHeap heap = new CellHeap();
+
+		Contractor(Grid grid)
+		{
+			this.grid = grid;
+			int cells = width * height;
+			targets = new int[cells][];
+			lengths = new int[cells][];
+			middles = new int[cells][];
+			degree = new int[cells];
+			removed = new int[cells];
+			level = new int[cells];
+			priority = new int[cells];
+			contracted = new boolean[cells];
+			witness = new int[cells];
+			reached = new int[cells];
+			wanted = new int[cells];
+
+			for (int cell = 0; cell < cells; cell++)
+			{
+				if (!grid.getVertex(cell).isWall())
+				{
+					targets[cell] = new int[4];
+					lengths[cell] = new int[4];
+					middles[cell] = new int[4];
+				}
+			}
+			for (int cell = 0; cell < cells; cell++)
+			{
+				Vertex v = grid.getVertex(cell);
+				if (v.isWall())
+				{
+					continue;
+				}
+				Edge[] edges = v.getNeighboringEdges();
+				for (int dir: new int[] {Vertex.EAST, Vertex.SOUTH})
+				{
+					if (edges[dir] != null && !edges[dir].getOtherLinkedVertex(v).isWall())
+					{
+						int next = edges[dir].getOtherLinkedVertex(v).getIndex();
+						addEdge(cell, next, edges[dir].getDistance(), -1);
+						addEdge(next, cell, edges[dir].getDistance(), -1);
+					}
+				}
+			}
+		}
+
+		//Precondition: A freshly built graph
+		//Postcondition: Contracts every open cell and fills in the upward edges of the hierarchy
+		void contractAll()
+		{
+			CellHeap queue = new CellHeap();
+			for (int cell = 0; cell < degree.length; cell++)
+			{
+				if (!grid.getVertex(cell).isWall())
+				{
+					priority[cell] = getPriority(cell);
+					queue.add(cell, priority[cell] + PRIORITY_OFFSET);
+				}
+			}
+
+			//the edges a cell has left when it is contracted are its upward edges
+			int[][] upTargets = new int[degree.length][];
+			int[][] upLengths = new int[degree.length][];
+			int[][] upMiddles = new int[degree.length][];
+			int edges = 0;
+			while (!queue.isEmpty())
+			{
+				int key = queue.peekKey() - PRIORITY_OFFSET;
+				int cell = queue.poll();
+				if (contracted[cell] || key != priority[cell])
+				{
+					continue;
+				}
+				priority[cell] = getPriority(cell);
+				if (!queue.isEmpty() && priority[cell] > queue.peekKey() - PRIORITY_OFFSET)
+				{
+					queue.add(cell, priority[cell] + PRIORITY_OFFSET);
+					continue;
+				}
+
+				addShortcuts(cell, true);
+				contracted[cell] = true;
+				upTargets[cell] = Arrays.copyOf(targets[cell], degree[cell]);
+				upLengths[cell] = Arrays.copyOf(lengths[cell], degree[cell]);
+				upMiddles[cell] = Arrays.copyOf(middles[cell], degree[cell]);
+				edges += degree[cell];
+				for (int i = 0; i < degree[cell]; i++)
+				{
+					int next = targets[cell][i];
+					removeEdge(next, cell);
+					removed[next]++;
+					level[next] = Math.max(level[next], level[cell] + 1);
+					priority[next] = getPriority(next);
+					queue.add(next, priority[next] + PRIORITY_OFFSET);
+				}
+				targets[cell] = null;
+				lengths[cell] = null;
+				middles[cell] = null;
+			}
+
+			first = new int[degree.length + 1];
+			target = new int[edges];
+			length = new int[edges];
+			middle = new int[edges];
+			for (int cell = 0; cell < degree.length; cell++)
+			{
+				first[cell + 1] = first[cell];
+				if (upTargets[cell] != null)
+				{
+					int count = upTargets[cell].length;
+					System.arraycopy(upTargets[cell], 0, target, first[cell], count);
+					System.arraycopy(upLengths[cell], 0, length, first[cell], count);
+					System.arraycopy(upMiddles[cell], 0, middle, first[cell], count);
+					first[cell + 1] += count;
+				}
+			}
+		}
+
+		//Precondition: A cell that has not been contracted
+		//Postcondition: Returns its place in the contraction order; lower goes first
+		private int getPriority(int cell)
+		{
+			return 2 * (addShortcuts(cell, false) - degree[cell]) + removed[cell] + level[cell];
+		}
+
+		//Precondition: A cell that has not been contracted and whether the shortcuts should really be added
+		//Postcondition: Finds every pair of the cell's neighbors whose shortest way runs through it and returns how
+		//				 many there are, adding a shortcut for each if asked to
+		private int addShortcuts(int cell, boolean add)
+		{
+			int count = 0;
+			for (int i = 0; i < degree[cell]; i++)
+			{
+				int u = targets[cell][i];
+				int farthest = 0;
+				for (int j = i + 1; j < degree[cell]; j++)
+				{
+					farthest = Math.max(farthest, lengths[cell][j]);
+				}
+				if (farthest == 0)
+				{
+					continue;
+				}
+				findWitnesses(cell, i, lengths[cell][i] + farthest);
+				for (int j = i + 1; j < degree[cell]; j++)
+				{
+					int w = targets[cell][j];
+					int through = lengths[cell][i] + lengths[cell][j];
+					if (reached[w] != search || witness[w] > through)
+					{
+						count++;
+						if (add)
+						{
+							addShortcut(u, w, through, cell);
+						}
+					}
+				}
+			}
+			return count;
+		}
+
+		//Precondition: The cell being contracted, which of its neighbors to search from and the longest way worth looking for
+		//Postcondition: Runs a Dijkstra search from that neighbor that never enters the contracted cell, stopping once
+		//				 the neighbors after it in the edge list are settled, past that length or after WITNESS_LIMIT cells
+		private void findWitnesses(int avoid, int from, int limit)
+		{
+			if (search == Integer.MAX_VALUE)
+			{
+				Arrays.fill(reached, 0);
+				Arrays.fill(wanted, 0);
+				search = 0;
+			}
+			search++;
+			int pending = 0;
+			for (int j = from + 1; j < degree[avoid]; j++)
+			{
+				wanted[targets[avoid][j]] = search;
+				pending++;
+			}
+			int source = targets[avoid][from];
+			heap.clear();
+			reached[source] = search;
+			witness[source] = 0;
+			heap.add(source, 0);
+			int count = 0;
+			while (!heap.isEmpty() && pending > 0 && count < WITNESS_LIMIT)
+			{
+				int d = heap.peekKey();
+				int cell = heap.poll();
+				if (d != witness[cell])
+				{
+					continue;
+				}
+				count++;
+				if (wanted[cell] == search)
+				{
+					pending--;
+				}
+				for (int i = 0; i < degree[cell]; i++)
+				{
+					int next = targets[cell][i];
+					int nd = d + lengths[cell][i];
+					if (next != avoid && nd <= limit && (reached[next] != search || nd < witness[next]))
+					{
+						reached[next] = search;
+						witness[next] = nd;
+						heap.add(next, nd);
+					}
+				}
+			}
+		}
+
+		//Precondition: Two neighbors of a cell being contracted, the length of the way between them through it and the cell
+		//Postcondition: Connects them with a shortcut of that length, or shortens the edge they already have
+		private void addShortcut(int u, int w, int len, int skipped)
+		{
+			int i = indexOf(u, w);
+			if (i == -1)
+			{
+				addEdge(u, w, len, skipped);
+				addEdge(w, u, len, skipped);
+			}
+			else if (len < lengths[u][i])
+			{
+				lengths[u][i] = len;
+				middles[u][i] = skipped;
+				int j = indexOf(w, u);
+				lengths[w][j] = len;
+				middles[w][j] = skipped;
+			}
+		}
+
+		//Precondition: A cell, a neighbor, the length of the edge between them and the cell it skips (-1 for none)
+		//Postcondition: Adds the edge to the cell's edge list
+		private void addEdge(int cell, int next, int len, int skipped)
+		{
+			if (degree[cell] == targets[cell].length)
+			{
+				targets[cell] = Arrays.copyOf(targets[cell], degree[cell] * 2);
+				lengths[cell] = Arrays.copyOf(lengths[cell], degree[cell] * 2);
+				middles[cell] = Arrays.copyOf(middles[cell], degree[cell] * 2);
+			}
+			targets[cell][degree[cell]] = next;
+			lengths[cell][degree[cell]] = len;
+			middles[cell][degree[cell]] = skipped;
+			degree[cell]++;
+		}
+
+		//Precondition: A cell and a neighbor it has an edge to
+		//Postcondition: Removes the edge from the cell's edge list, moving its last edge into the gap
+		private void removeEdge(int cell, int next)
+		{
+			int i = indexOf(cell, next);
+			int last = --degree[cell];
+			targets[cell][i] = targets[cell][last];
+			lengths[cell][i] = lengths[cell][last];
+			middles[cell][i] = middles[cell][last];
+		}
+
+		//Precondition: A cell and another cell
+		//Postcondition: Returns where the edge to the other cell is in the cell's edge list, or -1 if there is none
+		private int indexOf(int cell, int next)
+		{
+			for (int i = 0; i < degree[cell]; i++)
+			{
+				if (targets[cell][i] == next)
+				{
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	private static class IntList
+	{
+		/* A growable list of ints, used for paths and as a stack while unpacking shortcuts
+		 */
+
+		int[] values = new int[16];
+		int size;
+
+		void add(int value)
+		{
+			if (size == values.length)
+			{
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		int pop()
+		{
+			return values[--size];
+		}
+
+		int get(int i)
+		{
+			return values[i];
+		}
+
+		int size()
+		{
+			return size;
+		}
+
+		int[] toArray()
+		{
+			return Arrays.copyOf(values, size);
+		}
+	}
+}
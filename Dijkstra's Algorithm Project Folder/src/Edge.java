@@ -43,5 +43,12 @@ public class Edge
 	public int getDistance()
 	{
 		return distance;
-	}	
+	}
+	
+	//Precondition: A positive distance
+	//Postcondition: The edge is given the new distance
+	public void setDistance(int dist)
+	{
+		distance = dist;
+	}
 }
\ No newline at end of file
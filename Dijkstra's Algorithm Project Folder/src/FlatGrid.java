@@ -0,0 +1,689 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+
+public class FlatGrid implements PuzzleLayout
+{
+	/* This class is a compact alternative to Grid for very large puzzles. Instead of one Vertex and its Edges per
+	 * character, every cell is just an index (y * width + x) into a few primitive arrays: a bitset of walls and the
+	 * reach values, stamped with the solve they belong to (see CellValues) so that a new solve starts in constant
+	 * time instead of clearing them, with resolved cells marked in the stamps. Neighbors are found with index
+	 * arithmetic, so a cell costs a little over eight bytes while solving instead of a whole object graph.
+	 *
+	 * Besides the text format, a FlatGrid can be saved in and loaded from a binary format that stores the wall
+	 * bitset as it is, one bit per cell (all numbers little-endian):
+	 *
+	 * 	- bytes 0-3: the characters "MAZE"
+	 * 	- bytes 4-7: the format version, BINARY_VERSION
+	 * 	- bytes 8-23: width, height, start cell and finish cell (-1 if missing) as ints
+	 * 	- then the walls as ceil(width * height / 64) longs, bit i of the bitmap set when cell i is a wall
+	 */
+
+	private int width, height;
+	private long[] walls;		//bit i is set when cell i is a wall
+	private CellValues reach;	//reach value of every cell, marked once it is resolved, allocated on the first solve
+	private int start, finish;	//cell indexes of 'S' and 'F', or -1 if the puzzle has none
+	private boolean weighted;	//whether the puzzle had cells costing more than open floor ('2' to '9')
+	private SolveMonitor monitor;	//follows and can cancel getPath() from another thread, or null
+	private SearchEventRing events;	//receives every cell getPath() resolves or reaches, or null
+	private int expanded;		//cells resolved by the last getPath()
+
+	private static final long MAP_WINDOW = 1L << 28; //bytes of a puzzle file mapped into memory at a time by load
+
+	public static final int BINARY_VERSION = 1;
+	private static final int BINARY_MAGIC = 'M' | 'A' << 8 | 'Z' << 16 | 'E' << 24; //"MAZE" read as a little-endian int
+	private static final int BINARY_HEADER = 24; //bytes before the wall bitmap
+
+	//FlatGrid Constructor
+	//Reads in the text file line by line straight into the wall bitset and records the start and end point
+	public FlatGrid(Scanner scan)
+	{
+		start = -1;
+		finish = -1;
+		walls = new long[1];
+
+		while(scan.hasNext())
+		{
+			String line = scan.nextLine().trim();
+			if (height == 0)
+			{
+				width = line.length();
+			}
+			int row = height * width;
+			ensureCapacity(row + width);
+			for (int x = 0; x < width && x < line.length(); x++)
+			{
+				setCell(row + x, line.charAt(x));
+			}
+			height++;
+		}
+		walls = Arrays.copyOf(walls, words(getCellCount()));
+	}
+
+	//FlatGrid Constructor
+	//Creates an empty grid for load to fill in
+	private FlatGrid()
+	{
+		start = -1;
+		finish = -1;
+	}
+
+	//Precondition: A puzzle file in the text or the binary format
+	//Postcondition: Returns the puzzle read from the memory-mapped file. A binary puzzle's wall bitmap is copied into
+	//				 the bitset in bulk. A text puzzle is read in a single pass. Bytes go straight into the
+	//				 wall bitset and the start and finish are recorded as they are passed, so no line Strings or char
+	//				 arrays are made and the only thing allocated in proportion to the puzzle is the bitset itself.
+	//				 Like Grid(Scanner), every line is trimmed of the whitespace at either end, the first line sets
+	//				 the width, longer lines are cut to it and blank lines at the end of the file are ignored.
+	public static FlatGrid load(File file) throws IOException
+	{
+		FlatGrid grid = new FlatGrid();
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try
+		{
+			FileChannel channel = in.getChannel();
+			long length = channel.size();
+			long position = 0;
+			long row = 0;		//row being read
+			int column = 0;		//column of the next byte in that row
+			boolean started = false;	//whether the row has had anything but leading whitespace yet
+			long rows = 0;		//rows up to and including the last one with anything on it
+
+			while (position < length)
+			{
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW, length - position));
+				if (position == 0)
+				{
+					if (length >= BINARY_HEADER && buffer.order(ByteOrder.LITTLE_ENDIAN).getInt(0) == BINARY_MAGIC)
+					{
+						grid.readBinary(channel, file);
+						return grid;
+					}
+					grid.width = getFirstLineWidth(buffer);
+					if (grid.width == 0)
+					{
+						throw new IOException("The first line of " + file + " is empty");
+					}
+					//every full row takes at least width + 1 bytes, so this is enough for a well-formed file
+					grid.walls = new long[words((int) Math.min(Integer.MAX_VALUE, (length / (grid.width + 1) + 1) * grid.width))];
+				}
+				position += buffer.remaining();
+
+				while (buffer.hasRemaining())
+				{
+					byte b = buffer.get();
+					if (b == '\n')
+					{
+						row++;
+						column = 0;
+						started = false;
+					}
+					else if (started || !isBlank(b))
+					{
+						started = true;
+						if (column < grid.width)
+						{
+							long cell = row * grid.width + column;
+							if (cell >= Integer.MAX_VALUE)
+							{
+								throw new IOException(file + " has more cells than a FlatGrid can index");
+							}
+							if (column == 0)
+							{
+								grid.ensureCapacity((int) Math.min(Integer.MAX_VALUE, cell + grid.width));
+							}
+							grid.setCell((int) cell, b);
+						}
+						column++;
+						if (!isBlank(b))
+						{
+							rows = row + 1;
+						}
+					}
+				}
+			}
+
+			grid.height = (int) rows;
+			grid.walls = Arrays.copyOf(grid.walls, words(grid.getCellCount()));
+			return grid;
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+	//Precondition: A file in the binary format, open for reading
+	//Postcondition: Fills in this grid from the file. Throws an IOException if the file is not a binary puzzle of a
+	//				 known version or its length does not match the size in its header.
+	private void readBinary(FileChannel channel, File file) throws IOException
+	{
+		ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BINARY_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+		if (header.getInt(0) != BINARY_MAGIC || header.getInt(4) != BINARY_VERSION)
+		{
+			throw new IOException(file + " is not a version " + BINARY_VERSION + " binary puzzle");
+		}
+		width = header.getInt(8);
+		height = header.getInt(12);
+		start = header.getInt(16);
+		finish = header.getInt(20);
+		long cells = (long) width * height;
+		if (width < 0 || height < 0 || cells >= Integer.MAX_VALUE
+				|| channel.size() != BINARY_HEADER + 8L * words((int) cells)
+				|| start < -1 || start >= cells || finish < -1 || finish >= cells)
+		{
+			throw new IOException(file + " has a broken header");
+		}
+
+		walls = new long[words((int) cells)];
+		if (walls.length > 0)
+		{
+			channel.map(FileChannel.MapMode.READ_ONLY, BINARY_HEADER, 8L * walls.length).order(ByteOrder.LITTLE_ENDIAN)
+					.asLongBuffer().get(walls);
+		}
+	}
+
+	//Precondition: A file to write to
+	//Postcondition: Saves the puzzle in the binary format, which FlatGrid.load and Grid.load can read back
+	public void save(File file) throws IOException
+	{
+		if (weighted)
+		{
+			throw new IOException("The binary format cannot store cell costs, keep weighted puzzles as text");
+		}
+		RandomAccessFile out = new RandomAccessFile(file, "rw");
+		try
+		{
+			FileChannel channel = out.getChannel();
+			channel.truncate(0);
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(BINARY_MAGIC).putInt(BINARY_VERSION).putInt(width).putInt(height).putInt(start).putInt(finish);
+			for (int i = 0; i < words(getCellCount()); i++)
+			{
+				if (!buffer.hasRemaining())
+				{
+					write(channel, buffer);
+				}
+				buffer.putLong(walls[i]);
+			}
+			write(channel, buffer);
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+
+	//Precondition: A file channel and a buffer that has been filled from its start
+	//Postcondition: Writes everything put in the buffer to the channel and empties the buffer
+	private static void write(FileChannel channel, ByteBuffer buffer) throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	//Precondition: A file
+	//Postcondition: Returns whether the file starts like a puzzle in the binary format
+	public static boolean isBinary(File file) throws IOException
+	{
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try
+		{
+			return in.length() >= BINARY_HEADER && Integer.reverseBytes(in.readInt()) == BINARY_MAGIC;
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+	//Precondition: The start of a mapped puzzle file
+	//Postcondition: Returns the length of the first line once the whitespace at either end is trimmed, as
+	//				 String.trim would
+	private static int getFirstLineWidth(MappedByteBuffer buffer)
+	{
+		int first = -1;
+		int last = -1;
+		for (int i = 0; i < buffer.limit() && buffer.get(i) != '\n'; i++)
+		{
+			if (!isBlank(buffer.get(i)))
+			{
+				if (first == -1)
+				{
+					first = i;
+				}
+				last = i;
+			}
+		}
+		return first == -1 ? 0 : last - first + 1;
+	}
+
+	//Precondition: A byte of a text puzzle file
+	//Postcondition: Returns whether String.trim would remove it from the end of a line: a space, a tab or another
+	//				 control character
+	private static boolean isBlank(byte b)
+	{
+		return b >= 0 && b <= ' ';
+	}
+
+	//Precondition: The index of a cell being read and the character for it in the puzzle file
+	//Postcondition: Marks the cell as a wall for 'X', records it as the start or finish for the first 'S' or 'F', or
+	//				 notes that the puzzle is weighted for a cost digit above '1'
+	private void setCell(int cell, int c)
+	{
+		if (c == 'X')
+		{
+			walls[cell >>> 6] |= 1L << cell;
+		}
+		else if (c == 'S' && start == -1)
+		{
+			start = cell;
+		}
+		else if (c == 'F' && finish == -1)
+		{
+			finish = cell;
+		}
+		else if (c >= '2' && c <= '9')
+		{
+			weighted = true;
+		}
+	}
+
+	//Precondition: A grid has been created
+	//Postcondition: The width (horizontal length) of the grid is returned
+	public int getWidth()
+	{
+		return width;
+	}
+
+	//Precondition: A grid has been created
+	//Postcondition: The length (vertical length) of the grid is returned
+	public int getHeight()
+	{
+		return height;
+	}
+
+	//Precondition: A grid has been created
+	//Postcondition: Returns the number of cells in the grid
+	public int getCellCount()
+	{
+		return width * height;
+	}
+
+	//Precondition: The x and y coordinates of a cell
+	//Postcondition: Returns the index of the cell in the flat arrays
+	public int getIndex(int x, int y)
+	{
+		return y * width + x;
+	}
+
+	//Precondition: A grid has been created
+	//Postcondition: Returns the index of the start cell, or -1 if there is none
+	public int getStartIndex()
+	{
+		return start;
+	}
+
+	//Precondition: A grid has been created
+	//Postcondition: Returns the index of the finish cell, or -1 if there is none
+	public int getFinishIndex()
+	{
+		return finish;
+	}
+
+	//Precondition: The x and y coordinates of a cell
+	//Postcondition: Returns the character that represents the cell in a printed puzzle: 'X', 'S', 'F' or ' '
+	public char getSymbol(int x, int y)
+	{
+		return getSymbol(getIndex(x, y), null);
+	}
+
+	//Precondition: A monitor to report to, or null to stop using one
+	//Postcondition: getPath() reports its progress to the monitor and stops once it is cancelled, as Grid.getPath does
+	public void setSolveMonitor(SolveMonitor m)
+	{
+		monitor = m;
+	}
+
+	//Precondition: A ring to publish search events to, or null to stop publishing them
+	//Postcondition: getPath() adds every cell it resolves or adds to the frontier to the ring, as Grid.getPath does
+	public void setSearchEvents(SearchEventRing ring)
+	{
+		events = ring;
+	}
+
+	//Precondition: The index of a cell
+	//Postcondition: Returns whether or not the cell is a wall in the puzzle
+	public boolean isWall(int cell)
+	{
+		return (walls[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+	//Precondition: The index of a cell in a puzzle that has been solved
+	//Postcondition: Returns the reach value of the cell from the last solve
+	public int getReachValue(int cell)
+	{
+		return reach == null ? Integer.MAX_VALUE : reach.get(cell);
+	}
+
+	//Precondition: Takes the x and y coordinates for where the new start position should be located
+	//Postcondition: Moves the start to that cell if it is an empty location and returns whether it moved
+	public boolean setStart(int x, int y)
+	{
+		int cell = getIndex(x, y);
+		if (isWall(cell) || cell == start || cell == finish)
+		{
+			return false;
+		}
+		start = cell;
+		return true;
+	}
+
+	//Precondition: Takes the x and y coordinates for where the new end position should be located
+	//Postcondition: Moves the finish to that cell if it is an empty location and returns whether it moved
+	public boolean setFinish(int x, int y)
+	{
+		int cell = getIndex(x, y);
+		if (isWall(cell) || cell == start || cell == finish)
+		{
+			return false;
+		}
+		finish = cell;
+		return true;
+	}
+
+	//Precondition: A puzzle with a start and a finish
+	//Postcondition: Solves for and returns the cell indexes of the shortest path from the start to the finish using
+	//				 DIJKSTRA'S ALGORITHM. The path is the same one Grid.getPath finds on the same puzzle.
+	public int[] getPath()
+	{
+		checkUnweighted();
+		checkEnds();
+		resetCells();
+
+		CellHeap frontier = new CellHeap();
+		reach.set(start, 0);
+		frontier.add(start, 0);
+
+		expanded = 0;
+		try
+		{
+			while (!frontier.isEmpty())
+			{
+				int current = frontier.poll();
+				if (isResolved(current))
+				{
+					//a stale copy of a cell whose reach value was lowered after it was added
+					continue;
+				}
+				reach.mark(current);
+				expanded++;
+				if (events != null)
+				{
+					events.add(current, SearchEventRing.RESOLVED);
+				}
+				if (current == finish)
+				{
+					break;
+				}
+
+				int x = current % width;
+				int next = reach.get(current) + Vertex.VERTEX_DIST;
+				if (x < width - 1)
+				{
+					relax(current + 1, next, frontier);
+				}
+				if (current >= width)
+				{
+					relax(current - width, next, frontier);
+				}
+				if (x > 0)
+				{
+					relax(current - 1, next, frontier);
+				}
+				if (current + width < getCellCount())
+				{
+					relax(current + width, next, frontier);
+				}
+				if (monitor != null && (expanded & (SolveMonitor.REPORT_INTERVAL - 1)) == 0)
+				{
+					monitor.report(expanded, reach.get(current));
+				}
+			}
+		}
+		finally
+		{
+			if (events != null)
+			{
+				events.flush();
+			}
+		}
+
+		if (!isResolved(finish))
+		{
+			throw new UnsolvablePuzzleException();
+		}
+
+		//walks back from the finish to the start along the neighbors with the lowest reach values
+		int[] path = new int[reach.get(finish) / Vertex.VERTEX_DIST + 1];
+		int current = finish;
+		for (int i = path.length - 1; i >= 0; i--)
+		{
+			path[i] = current;
+			current = getLowestNeighbor(current);
+		}
+		return path;
+	}
+
+	//Precondition: A puzzle that getPath() has been called on
+	//Postcondition: Returns how many cells the last getPath() resolved
+	public int getExpanded()
+	{
+		return expanded;
+	}
+
+	//Precondition: A puzzle with a start and a finish and a pool of threads to solve it on
+	//Postcondition: Returns the same path as getPath(), found by relaxing each ring of cells around the start on all
+	//				 of the pool's threads at once (see ParallelSearch). getReachValue is not updated.
+	public int[] getPath(ForkJoinPool pool)
+	{
+		checkUnweighted();
+		checkEnds();
+		return new ParallelSearch(this, pool).solve();
+	}
+
+	//Precondition: A grid has been created
+	//Postcondition: Returns whether the puzzle has cells that cost more than open floor to cross
+	public boolean isWeighted()
+	{
+		return weighted;
+	}
+
+	//Precondition: A grid about to be solved
+	//Postcondition: Throws an IllegalStateException if the puzzle is weighted, since a FlatGrid only keeps its walls
+	//				 and solves every cell as open floor
+	private void checkUnweighted()
+	{
+		if (weighted)
+		{
+			throw new IllegalStateException("FlatGrid cannot solve puzzles with cell costs, use Grid");
+		}
+	}
+
+	//Precondition: A grid about to be solved
+	//Postcondition: Throws an IllegalStateException if the puzzle has no start or no finish, as TiledGrid.solve does
+	private void checkEnds()
+	{
+		if (start == -1 || finish == -1)
+		{
+			throw new IllegalStateException("The puzzle has no start or finish");
+		}
+	}
+
+	//Precondition: A cell, the reach value it can be reached with and the frontier
+	//Postcondition: Lowers the cell's reach value and adds it to the frontier if that reach value is an improvement
+	private void relax(int cell, int value, CellHeap frontier)
+	{
+		if (!isWall(cell) && !isResolved(cell) && value < reach.get(cell))
+		{
+			reach.set(cell, value);
+			frontier.add(cell, value);
+			if (events != null)
+			{
+				events.add(cell, SearchEventRing.FRONTIER);
+			}
+		}
+	}
+
+	//Precondition: The index of a cell
+	//Postcondition: Returns the neighbor with the lowest reach value, checked east, north, west then south like Grid
+	private int getLowestNeighbor(int cell)
+	{
+		int x = cell % width;
+		int closest = -1;
+		if (x < width - 1)
+		{
+			closest = lower(closest, cell + 1);
+		}
+		if (cell >= width)
+		{
+			closest = lower(closest, cell - width);
+		}
+		if (x > 0)
+		{
+			closest = lower(closest, cell - 1);
+		}
+		if (cell + width < getCellCount())
+		{
+			closest = lower(closest, cell + width);
+		}
+		return closest;
+	}
+
+	//Precondition: The closest cell found so far (-1 if none) and another cell
+	//Postcondition: Returns whichever cell has the strictly lower reach value, keeping the first one on a tie
+	private int lower(int closest, int cell)
+	{
+		if (closest == -1 || reach.get(cell) < reach.get(closest))
+		{
+			return cell;
+		}
+		return closest;
+	}
+
+	//Precondition: The index of a cell
+	//Postcondition: Returns whether the cell was resolved during the last solve
+	private boolean isResolved(int cell)
+	{
+		return reach.isMarked(cell);
+	}
+
+	//Precondition: A puzzle that may have already been solved
+	//Postcondition: Every reach value is set back to infinity and no cell is resolved, in constant time once the
+	//				 reach values have been allocated by the first solve
+	private void resetCells()
+	{
+		if (reach == null)
+		{
+			reach = new CellValues(getCellCount());
+		}
+		reach.clear(Integer.MAX_VALUE);
+	}
+
+	//Precondition: The number of cells the wall bitset must be able to hold
+	//Postcondition: Grows the wall bitset, doubling it so reading a puzzle stays linear
+	private void ensureCapacity(int cells)
+	{
+		if (words(cells) > walls.length)
+		{
+			walls = Arrays.copyOf(walls, Math.max(words(cells), walls.length * 2));
+		}
+	}
+
+	//Precondition: A number of bits
+	//Postcondition: Returns how many longs are needed to hold that many bits
+	private static int words(int bits)
+	{
+		return (bits + 63) >>> 6;
+	}
+
+	//Precondition: A grid object has been created
+	//Post Condition: Returns a string that represents the original puzzle
+	public String toString()
+	{
+		return getSolution(new int[0]);
+	}
+
+	//Precondition: A grid object has been created
+	//PostCondition: Returns an array of strings, each element containing one row of the grid of the puzzle
+	public String[] toStringArray()
+	{
+		String[] str = new String[height];
+		char[] row = new char[width];
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				row[x] = getSymbol(getIndex(x, y), null);
+			}
+			str[y] = new String(row);
+		}
+		return str;
+	}
+
+	//Precondition: The cell indexes of the solution path of a puzzle
+	//Postcondition: Returns a string that includes the original puzzle with the solved path marked out
+	public String getSolution(int[] path)
+	{
+		long[] onPath = new long[words(getCellCount())];
+		for (int cell: path)
+		{
+			onPath[cell >>> 6] |= 1L << cell;
+		}
+
+		StringBuilder str = new StringBuilder(height * (width + 1));
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				str.append(getSymbol(getIndex(x, y), onPath));
+			}
+			str.append('\n');
+		}
+		return str.toString();
+	}
+
+	//Precondition: The index of a cell and an optional bitset of path cells
+	//Postcondition: Returns the character that represents the cell in a printed puzzle
+	private char getSymbol(int cell, long[] onPath)
+	{
+		if (isWall(cell))
+		{
+			return 'X';
+		}
+		else if (cell == start)
+		{
+			return 'S';
+		}
+		else if (cell == finish)
+		{
+			return 'F';
+		}
+		else if (onPath != null && (onPath[cell >>> 6] & (1L << cell)) != 0)
+		{
+			return '*';
+		}
+		return ' ';
+	}
+}
@@ -1,21 +1,53 @@
-import java.awt.Rectangle;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Scanner;
 
-import javax.swing.ImageIcon;
 import javax.swing.JOptionPane;
 
-public class Grid 
+public class Grid implements PuzzleLayout
 {
 	/* This class includes methods that take a text file of the puzzle and turn it into a grid on which computations
 	 * can now be performed. It also consists of the methods that find the shortest path to the finish using Dijkstra's
 	 * Algorithm. 
 	 */
 	
-	private Vertex origin; // (0,0)
-	private char[][] chars;
+	//Solve modes accepted by getPath(int). Each mode's number coordinates with its name in the MODE_NAMES array below
+	public static final int DIJKSTRA = 0;
+	public static final int A_STAR = 1;
+	public static final int BIDIRECTIONAL = 2;
+	public static final int BIDIRECTIONAL_A_STAR = 3;
+	public static final int JUMP_POINT = 4;
+	public static final int LIFELONG_A_STAR = 5;
+	public static final String[] MODE_NAMES = {"Dijkstra", "A*", "Bidirectional Dijkstra", "Bidirectional A*", "Jump Point Search",
+			"Lifelong Planning A*"};
+	
+	private Vertex[] vertices; //every vertex of the grid in row-major order, (x, y) is at y * width + x
+	private int width, height;
 	private Vertex start, finish;
+	private SolveStats stats; //statistics of the last solve, null before the first one
+	private int minEdgeDistance, maxEdgeDistance; //shortest and longest edge lengths in the grid
+	private int solveGeneration; //number of the current solve, vertices from older solves are reset when first reached
+	private VertexFrontier treeFrontier; //frontier left by the last DIJKSTRA solve while its shortest-path tree is still valid, else null
+	private String treeStrategy; //how that frontier orders its vertices, for getSolveStats
+	private long layoutHash; //hash of the size and walls of the puzzle, kept up to date by setWall
+	private SolutionCache cache; //answers shared with other grids, or null to always solve
+	private LifelongPlanner planner; //LIFELONG_A_STAR search kept between solves, or null before the first one
+	private int[] components; //union-find parent of every vertex; open vertices with the same root may be connected
+	private boolean componentsExact; //false once a wall may have split a component, so the roots can over-merge
+	private SolveMonitor monitor; //follows and can cancel solves from another thread, or null
+	private SearchEventRing events; //receives every cell DIJKSTRA and A_STAR resolve or reach, or null
+	private CellValues[] searchStates; //per-cell state lent to the solvers in other classes, created on first use
+	
+	//Longest edge length for which DIJKSTRA uses one bucket per reach value (Dial's algorithm) instead of a heap
+	public static final int MAX_BUCKET_DISTANCE = 1024;
+	
+	//Number of arrays of per-cell state a grid keeps for the solvers in other classes (see getSearchState). 0 to 3 are
+	//shared by BidirectionalSearch and JumpPointSearch, which start over on every solve and give each array its default
+	//when they clear it, and 4 and 5 belong to the LifelongPlanner, whose state has to outlive the other modes' solves.
+	public static final int SEARCH_STATES = 6;
 	
 	//Grid Constructor
 	//Reads in the text file line by line, produces the grid, and sets the start and end point
@@ -28,50 +60,114 @@ public class Grid
 			input.add(scan.nextLine().trim());
 		}
 		
-		chars = new char[input.size()][];
+		char[][] chars = new char[input.size()][];
 		
 		for (int x = 0; x < input.size(); x++)
 		{
 			chars[x] = input.get(x).toCharArray();
 		}
 		
-		createGrid(getWidth(), getHeight());
-		setWalls();
+		build(chars);
+	}
+	
+	//Grid Constructor
+	//Produces the grid for a puzzle that has already been read into a FlatGrid, straight from its wall bits, start and
+	//finish without printing it to text first. A FlatGrid keeps no cell costs, so every open cell is plain floor.
+	public Grid(FlatGrid flat)
+	{
+		width = flat.getWidth();
+		height = flat.getHeight();
+		createGrid(width, height);
+		layoutHash = getCellHash(~(width * 65599 + height));
+		for (int i = 0; i < vertices.length; i++)
+		{
+			if (flat.isWall(i))
+			{
+				vertices[i].setWall(true);
+				layoutHash ^= getCellHash(i);
+			}
+		}
+		measureEdges();
+		labelComponents();
 		
-		start = getStart();
-		finish = getFinish();
+		start = flat.getStartIndex() == -1 ? null : vertices[flat.getStartIndex()];
+		finish = flat.getFinishIndex() == -1 ? null : vertices[flat.getFinishIndex()];
+	}
+	
+	//Precondition: A puzzle file in the text or the binary format (see FlatGrid)
+	//Postcondition: Returns the grid for the puzzle. Text files are read just like Grid(Scanner) reads them.
+	public static Grid load(File file) throws IOException
+	{
+		if (FlatGrid.isBinary(file))
+		{
+			return new Grid(FlatGrid.load(file));
+		}
+		Scanner scan = new Scanner(file);
+		try
+		{
+			return new Grid(scan);
+		}
+		finally
+		{
+			scan.close();
+		}
+	}
+	
+	//Precondition: The characters of the puzzle, one array per line
+	//Postcondition: Produces the grid and sets the start and end point
+	private void build(char[][] chars)
+	{
+		width = chars[0].length;
+		height = chars.length;
+		createGrid(width, height);
+		setWalls(chars);
+		setCosts(chars);
+		measureEdges();
+		labelComponents();
 		
+		start = findVertex(chars, 'S');
+		finish = findVertex(chars, 'F');
 	}
 	
 	//Precondition: A grid has been created
 	//Postcondition: Returns the Vertex that represents the 'S' character
 	public Vertex getStart()
 	{
-		for (int y = 0; y < getHeight(); y++)
-		{
-			for (int x = 0; x < getWidth(); x++)
-			{
-				if(chars[y][x] == 'S')
-				{
-					return getVertex(x, y);
-				}
-			}
-		}
-		return null;
+		return start;
 	}
 	
 	//Precondition: A grid has been created
 	//Postcondition: Returns the Vertex that represents the 'F' character
 	public Vertex getFinish()
+	{
+		return finish;
+	}
+	
+	//Precondition: A grid has been created
+	//Postcondition: Returns the index of the start vertex, or -1 if there is none
+	public int getStartIndex()
+	{
+		return start == null ? -1 : start.getIndex();
+	}
+	
+	//Precondition: A grid has been created
+	//Postcondition: Returns the index of the finish vertex, or -1 if there is none
+	public int getFinishIndex()
+	{
+		return finish == null ? -1 : finish.getIndex();
+	}
+	
+	//Precondition: A grid has been created from the characters of the puzzle
+	//Postcondition: Returns the Vertex at the first occurrence of the character in the puzzle, or null if there is none
+	private Vertex findVertex(char[][] chars, char c)
 	{
 		for (int y = 0; y < getHeight(); y++)
 		{
-			for ( int x = 0; x < getWidth(); x++)
+			for (int x = 0; x < getWidth() && x < chars[y].length; x++)
 			{
-				if (chars[y][x] == 'F')
+				if(chars[y][x] == c)
 				{
-					Vertex temp = getVertex(x,y);
-					return temp;
+					return getVertex(x, y);
 				}
 			}
 		}
@@ -82,40 +178,120 @@ public class Grid
 	//Postcondition: The length (vertical length) of the grid is returned
 	public int getHeight()
 	{
-		return chars.length;
+		return height;
 	}
 
 	//Precondition: A grid has been created
 	//Postcondition: The width (horizontal length) of the grid is returned
 	public int getWidth()
 	{
-		return chars[0].length;
+		return width;
+	}
+	
+	//Precondition: A puzzle that may have already been solved
+	//Postcondition: Starts a new solve generation so the reach values left from earlier solves with different start
+	//				 and end points no longer count. Each vertex is only reset (Vertex.resetFor) when the new solve
+	//				 first reaches it, so this takes constant time instead of visiting every vertex.
+	private void resetVertices()
+	{
+		solveGeneration++;
+		if (solveGeneration == 0)
+		{
+			//the counter has wrapped around, so an old vertex could look current again; marks all of them as old
+			for (Vertex v: vertices)
+			{
+				v.resetFor(0);
+			}
+			solveGeneration = 1;
+		}
 	}
 	
 	//Precondition: A grid has been created
-	//Postcondition: Returns all the individual vertices that make the grid
-	private ArrayList<Vertex> getAllVertices()
+	//Postcondition: Labels the connected regions of open vertices in one pass, joining every open vertex with its open
+	//				 east and south neighbors in a union-find forest. Walls stay on their own.
+	private void labelComponents()
 	{
-		ArrayList<Vertex> vertices = new ArrayList<Vertex>();
-		for (int y = 0; y < getHeight(); y++)
+		if (components == null)
+		{
+			components = new int[vertices.length];
+		}
+		for (int i = 0; i < components.length; i++)
+		{
+			components[i] = i;
+		}
+		for (Vertex v: vertices)
 		{
-			for ( int x = 0; x < getWidth(); x++)
+			if (!v.isWall())
 			{
-				vertices.add(getVertex(x,y));
+				for (int dir: new int[] {Vertex.EAST, Vertex.SOUTH})
+				{
+					Vertex n = v.getNeighbor(dir);
+					if (n != null && !n.isWall())
+					{
+						union(v.getIndex(), n.getIndex());
+					}
+				}
 			}
 		}
-		return vertices;
+		componentsExact = true;
 	}
 	
-	//Precondition: A puzzle that may have already been solved
-	//Postcondition: Resets all of the reach values of the vertex back to infinity to remove error from re-execution 
-	//				 of the algorithm with different start and end points
-	private void resetVertices()
+	//Precondition: The index of a vertex
+	//Postcondition: Returns the root of its component, halving the path to it on the way
+	private int findComponent(int i)
+	{
+		while (components[i] != i)
+		{
+			components[i] = components[components[i]];
+			i = components[i];
+		}
+		return i;
+	}
+	
+	//Precondition: The indexes of two vertices
+	//Postcondition: Their components are joined into one
+	private void union(int a, int b)
+	{
+		a = findComponent(a);
+		b = findComponent(b);
+		if (a != b)
+		{
+			//the lower root wins so the forest does not depend on the order edges are joined in
+			components[Math.max(a, b)] = Math.min(a, b);
+		}
+	}
+	
+	//Precondition: Two vertices of the grid
+	//Postcondition: Returns false when there is certainly no path between them, which takes near-constant time. True
+	//				 means there is one, unless a wall built since the last solve has split their component; the first
+	//				 solve that finds no path relabels the components.
+	public boolean isConnected(Vertex a, Vertex b)
+	{
+		if (a.isWall() || b.isWall())
+		{
+			return a == b;
+		}
+		return findComponent(a.getIndex()) == findComponent(b.getIndex());
+	}
+	
+	//Precondition: An instantiated grid
+	//Postcondition: Drops the DIJKSTRA shortest-path tree and the LIFELONG_A_STAR search, so the next solve in either
+	//				 mode starts from nothing, as it would on a grid that has just been built
+	public void forgetSearches()
+	{
+		invalidateTree();
+		planner = null;
+	}
+	
+	//Precondition: A grid whose start or walls have changed, or that is about to be solved in a way that does not keep
+	//				 the DIJKSTRA shortest-path tree
+	//Postcondition: The tree is dropped so the next DIJKSTRA solve starts over
+	private void invalidateTree()
 	{
-		for (Vertex v: getAllVertices())
+		if (treeFrontier != null)
 		{
-			v.setReachValue(Integer.MAX_VALUE);
-			v.setResolved(false);
+			treeFrontier.clear();
+			treeFrontier = null;
 		}
 	}
 	
@@ -123,34 +299,277 @@ public class Grid
 	//Postcondition: Solves for and returns the shortest path to the end point (vertex for char 'F') from the starting point (vertex for char 'S') using DIJKSTRA'S ALGORITHM
 	public ArrayList<Vertex> getPath()
 	{
-		//resets all the reach values for the vertices in case the same puzzle is solved again with different
-		//beginning and end points
-		resetVertices();
+		return getPath(DIJKSTRA);
+	}
+	
+	//Precondition: An instantiated grid and one of the solve modes defined above
+	//Postcondition: Solves for and returns the shortest path from the start to the finish using the given mode and
+	//				 records how the solve went in getSolveStats(). A_STAR orders the frontier by reach value plus the
+	//				 Manhattan distance to the finish, which never overestimates on this grid, so the path is just as
+	//				 short as DIJKSTRA's while far fewer vertices are resolved when the finish lies in an open direction.
+	//				 BIDIRECTIONAL and BIDIRECTIONAL_A_STAR search from both ends at once (see BidirectionalSearch).
+	//				 JUMP_POINT skips over the many equally short ways across open areas (see JumpPointSearch). Those
+	//				 only exist when every edge has the same length, so on weighted terrain it solves like A_STAR.
+	//				 LIFELONG_A_STAR keeps its search between calls and, after setWall, only repairs the distances the
+	//				 change affected (see LifelongPlanner).
+	//				 DIJKSTRA keeps the tree of shortest paths from the start that it has built, along with its frontier,
+	//				 until the start or a wall changes. A later call whose finish is already in the tree is answered by
+	//				 walking back through it, and one whose finish is not carries on the search from where it stopped.
+	//				 With a SolutionCache set, a question the cache has already seen is answered from it instead.
+	//				 A start and finish in different components (see isConnected) are rejected without searching.
+	public ArrayList<Vertex> getPath(int mode)
+	{
+		if (mode < DIJKSTRA || mode > LIFELONG_A_STAR)
+		{
+			throw new IllegalArgumentException("Unknown solve mode " + mode);
+		}
+		long time = System.nanoTime();
+		if (start != null && finish != null && !isConnected(start, finish))
+		{
+			stats = new SolveStats(MODE_NAMES[mode] + " (disconnected)", 0, System.nanoTime() - time);
+			throw new UnsolvablePuzzleException();
+		}
+		if (cache == null)
+		{
+			return solveConnected(mode);
+		}
 		
-		//sets all nodes as unresolved
-		HashSet<Vertex> unvisited = new HashSet<Vertex>();
-		unvisited.addAll(getAllVertices());
+		int[] cells = cache.get(this);
+		if (cells != null)
+		{
+			stats = new SolveStats(MODE_NAMES[mode] + " (cached)", 0, System.nanoTime() - time);
+			if (cells.length == 0)
+			{
+				throw new UnsolvablePuzzleException();
+			}
+			ArrayList<Vertex> path = new ArrayList<Vertex>(cells.length);
+			for (int cell: cells)
+			{
+				path.add(vertices[cell]);
+			}
+			return path;
+		}
 		
-		//sets the reach value for the starting node to 0 and considers it solved
-		start.setReachValue(0);
-		unvisited.remove(start);
+		try
+		{
+			ArrayList<Vertex> path = solveConnected(mode);
+			int[] indexes = new int[path.size()];
+			for (int i = 0; i < indexes.length; i++)
+			{
+				indexes[i] = path.get(i).getIndex();
+			}
+			cache.put(this, indexes);
+			return path;
+		}
+		catch (UnsolvablePuzzleException e)
+		{
+			cache.put(this, null);
+			throw e;
+		}
+	}
+	
+	//Precondition: An instantiated grid, a valid solve mode and a start and finish with the same component root
+	//Postcondition: Solves as described in getPath. If there turns out to be no path, the roots were stale after a
+	//				 wall split a component, so they are rebuilt and the next solve of the same pair is rejected at once.
+	private ArrayList<Vertex> solveConnected(int mode)
+	{
+		try
+		{
+			return solve(mode);
+		}
+		catch (UnsolvablePuzzleException e)
+		{
+			if (!componentsExact)
+			{
+				labelComponents();
+			}
+			throw e;
+		}
+	}
+	
+	//Precondition: An instantiated grid and a valid solve mode
+	//Postcondition: Solves for and returns the shortest path from the start to the finish as described in getPath
+	private ArrayList<Vertex> solve(int mode)
+	{
+		long time = System.nanoTime();
+		
+		if (mode == JUMP_POINT && minEdgeDistance != maxEdgeDistance)
+		{
+			ArrayList<Vertex> path = null;
+			try
+			{
+				path = solve(A_STAR);
+			}
+			finally
+			{
+				stats = new SolveStats(MODE_NAMES[mode] + " (weighted, solved as A*)", stats.getExpanded(), System.nanoTime() - time);
+			}
+			return path;
+		}
+		if (mode == BIDIRECTIONAL || mode == BIDIRECTIONAL_A_STAR)
+		{
+			BidirectionalSearch search = new BidirectionalSearch(this, mode == BIDIRECTIONAL_A_STAR);
+			try
+			{
+				return search.solve();
+			}
+			finally
+			{
+				stats = new SolveStats(MODE_NAMES[mode], search.getExpanded(), System.nanoTime() - time);
+			}
+		}
+		if (mode == LIFELONG_A_STAR)
+		{
+			if (planner == null || planner.getStart() != start.getIndex() || planner.getFinish() != finish.getIndex())
+			{
+				planner = new LifelongPlanner(this);
+			}
+			try
+			{
+				return planner.solve();
+			}
+			finally
+			{
+				stats = new SolveStats(MODE_NAMES[mode], planner.getExpanded(), System.nanoTime() - time);
+			}
+		}
+		if (mode == JUMP_POINT)
+		{
+			JumpPointSearch search = new JumpPointSearch(this);
+			try
+			{
+				return search.solve();
+			}
+			finally
+			{
+				stats = new SolveStats(MODE_NAMES[mode], search.getExpanded(), System.nanoTime() - time);
+			}
+		}
+		
+		//the frontier only holds vertices that have been reached but not yet resolved, ordered by reach value
+		//(plus the estimate of the distance left for A*)
+		String strategy;
+		VertexFrontier frontier;
+		if (mode == DIJKSTRA && treeFrontier != null)
+		{
+			//the last DIJKSTRA solve started from the same place on the same walls, so everything it resolved is
+			//still right and the search picks up where it stopped
+			frontier = treeFrontier;
+			strategy = treeStrategy;
+			finish.resetFor(solveGeneration);
+		}
+		else
+		{
+			//resets all the reach values for the vertices in case the same puzzle is solved again with different
+			//beginning and end points
+			invalidateTree();
+			resetVertices();
+			
+			strategy = MODE_NAMES[mode];
+			if (mode == DIJKSTRA && minEdgeDistance == maxEdgeDistance && minEdgeDistance > 0)
+			{
+				frontier = new VertexQueue();
+				strategy += " (breadth-first queue)";
+			}
+			else if (mode == DIJKSTRA && maxEdgeDistance <= MAX_BUCKET_DISTANCE)
+			{
+				frontier = new VertexBuckets(maxEdgeDistance);
+				strategy += " (Dial buckets)";
+			}
+			else
+			{
+				frontier = new VertexRadixHeap();
+				strategy += " (radix heap)";
+			}
+			
+			//sets the reach value for the starting node to 0 and places it in the frontier
+			start.resetFor(solveGeneration);
+			finish.resetFor(solveGeneration);
+			start.setReachValue(0);
+			frontier.addOrDecrease(start, getPriority(mode, start));
+		}
 		
-		//finds the vertex that has the lowest reach value from any of the solved vertices
-		//loop continues until all nodes and/or finish has been resolved 
-		Vertex current = start;
-		while(!(finish.getResolved() || current.getReachValue() == Integer.MAX_VALUE))
+		//resolves the vertex with the lowest priority in the frontier
+		//loop continues until the finish has been resolved or there is nothing left to reach. The finish's own edges
+		//are still relaxed so the frontier is complete if a later solve carries on from it.
+		Vertex current;
+		int expanded = 0;
+		SearchEventRing ring = events;
+		boolean stopped = true; //until the loop ends by itself, in case the monitor cancels the solve
+		try
 		{
-			//checks all edges for the shortest reach value and changes the adjacent node's reach value accordingly
-			for(Edge e: current.getNeighboringEdges())
+			while(!finish.getResolved() && !frontier.isEmpty())
 			{
-				if(e != null && !e.getOtherLinkedVertex(current).isWall() && current.getReachValue() + e.getDistance() < e.getOtherLinkedVertex(current).getReachValue())
+				current = frontier.poll();
+				if(current.getResolved())
+				{
+					//a leftover entry from before the vertex's reach value was lowered
+					continue;
+				}
+				current.setResolved(true);
+				expanded++;
+				if (ring != null)
 				{
-					e.getOtherLinkedVertex(current).setReachValue(current.getReachValue() + e.getDistance());
+					ring.add(current.getIndex(), SearchEventRing.RESOLVED);
 				}
+				
+				//checks all edges for the shortest reach value and changes the adjacent node's reach value accordingly,
+				//remembering the direction back to the vertex it was reached from
+				Edge[] edges = current.getNeighboringEdges();
+				for(int dir = 0; dir < edges.length; dir++)
+				{
+					if(edges[dir] != null)
+					{
+						Vertex other = edges[dir].getOtherLinkedVertex(current);
+						other.resetFor(solveGeneration);
+						int reach = current.getReachValue() + edges[dir].getDistance();
+						int back = Vertex.getOppositeDirection(dir);
+						if(!other.isWall() && !other.getResolved())
+						{
+							if(reach < other.getReachValue())
+							{
+								other.setReachValue(reach);
+								other.setPreviousDirection(back);
+								frontier.addOrDecrease(other, getPriority(mode, other));
+								if (ring != null)
+								{
+									ring.add(other.getIndex(), SearchEventRing.FRONTIER);
+								}
+							}
+							//on a tie the earliest direction (east, north, west, south) wins so the path is always the same one
+							else if(reach == other.getReachValue() && back < other.getPreviousDirection())
+							{
+								other.setPreviousDirection(back);
+							}
+						}
+					}
+				}
+				if (monitor != null && (expanded & (SolveMonitor.REPORT_INTERVAL - 1)) == 0)
+				{
+					monitor.report(expanded, current.getReachValue());
+				}
+			}
+			stopped = false;
+		}
+		finally
+		{
+			if (ring != null)
+			{
+				ring.flush();
+			}
+			//a cancelled DIJKSTRA search still keeps its tree and frontier, so the next solve carries on from them
+			boolean reused = frontier == treeFrontier;
+			if (mode == DIJKSTRA)
+			{
+				treeFrontier = frontier;
+				treeStrategy = strategy;
 			}
-			current.setResolved(true);
-			unvisited.remove(current);
-			current = getLowestDistance(unvisited);
+			else
+			{
+				frontier.clear();
+			}
+			stats = new SolveStats((reused ? strategy + " (reused tree)" : strategy) + (stopped ? " (cancelled)" : ""), expanded,
+					System.nanoTime() - time);
 		}
 		
 		//checks whether finish has been resolved. If not, exception is thrown.
@@ -158,16 +577,131 @@ public class Grid
 		{
 			throw new UnsolvablePuzzleException();
 		}
+		return buildPath();
+	}
+	
+	//Precondition: A solve mode and a vertex whose reach value has just been set
+	//Postcondition: Returns the vertex's place in the frontier. DIJKSTRA orders by reach value alone; A_STAR orders by
+	//				 reach value plus the estimated distance left, which never goes down from one resolved vertex to
+	//				 the next because the estimate is consistent, so both can use a VertexRadixHeap
+	private long getPriority(int mode, Vertex v)
+	{
+		if (mode == A_STAR)
+		{
+			return v.getReachValue() + getEstimate(v);
+		}
+		return v.getReachValue();
+	}
+	
+	//Precondition: The index of a vertex in the grid (y * width + x)
+	//Postcondition: Returns the vertex at that index
+	public Vertex getVertex(int index)
+	{
+		return vertices[index];
+	}
+	
+	//Precondition: A vertex of the grid
+	//Postcondition: Returns the Manhattan distance from the vertex to the finish in edge lengths. Every move costs at
+	//				 least Vertex.VERTEX_DIST, so this never overestimates and never drops by more than one move's cost.
+	private int getEstimate(Vertex v)
+	{
+		int dx = Math.abs(v.getIndex() % getWidth() - finish.getIndex() % getWidth());
+		int dy = Math.abs(v.getIndex() / getWidth() - finish.getIndex() / getWidth());
+		return (dx + dy) * Vertex.VERTEX_DIST;
+	}
+	
+	//Precondition: A cache to share answers through, or null to stop using one
+	//Postcondition: getPath looks questions up in the cache first and stores the answers it has to solve for
+	public void setSolutionCache(SolutionCache c)
+	{
+		cache = c;
+	}
+
+	//Precondition: A monitor to report solve progress to, or null to stop using one
+	//Postcondition: Every search getPath runs reports to the monitor as described in SolveMonitor, and stops with a
+	//				 SolveCancelledException once it is cancelled
+	public void setSolveMonitor(SolveMonitor m)
+	{
+		monitor = m;
+	}
+
+	//Precondition: A ring to publish search events to, or null to stop publishing them
+	//Postcondition: DIJKSTRA and A_STAR solves add every cell they resolve and every cell they add to the frontier to
+	//				 the ring, so another thread can animate the search. The other modes do not publish events.
+	public void setSearchEvents(SearchEventRing ring)
+	{
+		events = ring;
+	}
+	
+	//Precondition: None
+	//Postcondition: Returns the monitor solves report to, or null if there is none
+	public SolveMonitor getSolveMonitor()
+	{
+		return monitor;
+	}
+	
+	//Precondition: The number of one of the arrays of per-cell state, below SEARCH_STATES
+	//Postcondition: Returns the array, as the last solve that used it left it. It is only allocated the first time,
+	//				 so a solver clears it (CellValues.clear) in constant time instead of allocating its own.
+	public CellValues getSearchState(int which)
+	{
+		if (searchStates == null)
+		{
+			searchStates = new CellValues[SEARCH_STATES];
+		}
+		if (searchStates[which] == null)
+		{
+			searchStates[which] = new CellValues(vertices.length);
+		}
+		return searchStates[which];
+	}
+
+	//Precondition: A grid has been created
+	//Postcondition: Returns a 64-bit hash of the size of the puzzle and where its walls are. Grids with the same layout
+	//				 always have the same hash, whatever their start and finish.
+	public long getLayoutHash()
+	{
+		return layoutHash;
+	}
+	
+	//Precondition: The index of a vertex in the grid
+	//Postcondition: Returns the part of the layout hash that changes when the vertex becomes or stops being a wall
+	private static long getCellHash(int index)
+	{
+		long z = (index + 1L) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+	
+	//Precondition: A solved grid
+	//Postcondition: Returns statistics (mode, vertices resolved, time) of the last call to getPath, or null if there was none
+	public SolveStats getSolveStats()
+	{
+		return stats;
+	}
+	
+	//Precondition: The finish has been resolved and every reached vertex knows the direction it was reached from
+	//Postcondition: Returns the path from the start to the finish
+	private ArrayList<Vertex> buildPath()
+	{
+		Vertex current;
+		
+		//counts the steps back to the start so the arraylist is created at its final size
+		int steps = 0;
+		for(current = finish; current != start; current = current.getNeighbor(current.getPreviousDirection()))
+		{
+			steps++;
+		}
 		
-		//creates the arraylist which contains all vertices with the lowest reach values that produce the path to the finish
-		ArrayList<Vertex> path = new ArrayList<Vertex>();
-		current = finish;
-		path.add(current);
-		while(current != start)
+		//follows the recorded directions back from the finish and reverses them into the path from the start
+		ArrayList<Vertex> path = new ArrayList<Vertex>(steps + 1);
+		for(current = finish; current != start; current = current.getNeighbor(current.getPreviousDirection()))
 		{
-			current = getLowestDistance(current.getNeighbors());
-			path.add(0, current);
+			path.add(current);
 		}
+		path.add(start);
+		Collections.reverse(path);
 		return path;
 	}
 	
@@ -175,6 +709,7 @@ public class Grid
 	//Postcondition: creates the grid
 	private void createGrid(int east, int south)
 	{
+		vertices = new Vertex[east * south];
 		ArrayList<ArrayList<Vertex>> grid = new ArrayList<ArrayList<Vertex>>();
 		
 		//columns
@@ -189,7 +724,8 @@ public class Grid
 			ArrayList<Vertex> current = new ArrayList<Vertex>();
 			for (int x = 0; x < east; x++)
 			{
-				Vertex v = new Vertex();
+				Vertex v = new Vertex(y * east + x);
+				vertices[y * east + x] = v;
 				current.add(v);
 				grid.get(x).add(v);
 			}
@@ -202,116 +738,104 @@ public class Grid
 		{
 			Vertex.chain(Vertex.SOUTH, grid.get(x));
 		}
-		origin = grid.get(0).get(0);
 	}
 	
 	//Precondition: a created grid
-	//Postcondition: checks for all vertices with char = 'X' and sets them as a wall
-	private void setWalls()
+	//Postcondition: records the shortest and longest edge lengths, which decide the frontier getPath uses
+	private void measureEdges()
 	{
-		for (int y = 0; y < chars.length; y++)
+		minEdgeDistance = Integer.MAX_VALUE;
+		maxEdgeDistance = 0;
+		for (Vertex v: vertices)
 		{
-			for (int x = 0; x < chars[y].length; x++)
+			for (Edge e: v.getNeighboringEdges())
 			{
-				if (chars[y][x] == 'X')
+				if (e != null)
 				{
-					getVertex(x, y).setWall(true);
+					minEdgeDistance = Math.min(minEdgeDistance, e.getDistance());
+					maxEdgeDistance = Math.max(maxEdgeDistance, e.getDistance());
 				}
 			}
 		}
 	}
 	
-	//Precondition: the number of nodes you need to move east and south from the origin to reach the vertex
-	//Postcondition: returns the vertex that corresponds with the coordinates
-	public Vertex getVertex(int east, int south)
+	//Precondition: a grid created from the characters of the puzzle
+	//Postcondition: checks for all vertices with char = 'X' and sets them as a wall, and hashes the layout
+	private void setWalls(char[][] chars)
 	{
-		Vertex current = origin;
-		for(int x = 0; x < east; x++)
-		{
-			current = current.getNeighbor(Vertex.EAST);
-		}
-		for(int y = 0; y < south; y++)
+		layoutHash = getCellHash(~(getWidth() * 65599 + getHeight()));
+		for (int y = 0; y < chars.length; y++)
 		{
-			current = current.getNeighbor(Vertex.SOUTH);
+			for (int x = 0; x < getWidth() && x < chars[y].length; x++)
+			{
+				if (chars[y][x] == 'X')
+				{
+					getVertex(x, y).setWall(true);
+					layoutHash ^= getCellHash(getVertex(x, y).getIndex());
+				}
+			}
 		}
-		return current;
 	}
 	
-	//Precondition: An arraylist of vertices
-	//Postcondition: Returns the vertex that has a shortest reach value in the list
-	private Vertex getLowestDistance(ArrayList<Vertex> list)
+	//Precondition: a grid created from the characters of the puzzle
+	//Postcondition: gives every vertex with a digit char ('1' to '9') that cost and sets the length of every edge to
+	//				 half the cost of each of its two vertices (rounded up), so crossing a cell costs about its digit
+	private void setCosts(char[][] chars)
 	{
-		Vertex closest = null;
-		for (Vertex v: list)
+		for (int y = 0; y < chars.length; y++)
 		{
-			if(v != null)
+			for (int x = 0; x < getWidth() && x < chars[y].length; x++)
 			{
-				if(closest == null)
-				{
-					closest = v;
-				}
-				else
+				if (chars[y][x] >= '1' && chars[y][x] <= '9')
 				{
-					if(closest.getReachValue() > v.getReachValue())
+					Vertex v = getVertex(x, y);
+					v.setCost(chars[y][x] - '0');
+					if (v.getCost() != Vertex.VERTEX_DIST)
 					{
-						closest = v;
+						layoutHash ^= Long.rotateLeft(getCellHash(v.getIndex()), v.getCost());
 					}
 				}
 			}
 		}
-		return closest;
-	}
-	
-	//Precondition: A hashset of vertices
-	//Postcondition: Returns the vertex that has a shortest reach value in the set
-	private Vertex getLowestDistance(HashSet<Vertex> set)
-	{
-		Vertex closest = null;
-		for (Vertex v: set)
+		
+		for (Vertex v: vertices)
 		{
-			if(v != null)
+			for (int dir: new int[] {Vertex.EAST, Vertex.SOUTH})
 			{
-				if(closest == null)
-				{
-					closest = v;
-				}
-				else
+				Edge e = v.getNeighboringEdges()[dir];
+				if (e != null)
 				{
-					if(closest.getReachValue() > v.getReachValue())
-					{
-						closest = v;
-					}
+					e.setDistance((v.getCost() + e.getOtherLinkedVertex(v).getCost() + 1) / 2);
 				}
 			}
 		}
-		return closest;
+	}
+	
+	//Precondition: the number of nodes you need to move east and south from the origin to reach the vertex
+	//Postcondition: returns the vertex that corresponds with the coordinates
+	public Vertex getVertex(int east, int south)
+	{
+		if (east < 0 || east >= getWidth() || south < 0 || south >= getHeight())
+		{
+			throw new IndexOutOfBoundsException();
+		}
+		return vertices[south * getWidth() + east];
 	}
 	
 	//Precondition: Takes the x and y coordinates for where the new start position should be located
-	//Postcondition: Changes the location of the start vertex and relocates the 'S' in the chars array 
+	//Postcondition: Changes the location of the start vertex if it is an empty location (see isEmpty)
 	public boolean setStart(int x, int y)
 	{
 		Vertex temp = start;
 		
-		if (!this.getVertex(x, y).isWall())
+		if (isEmpty(this.getVertex(x, y)))
 		{
 			if (getVertex(x, y) != start)
 			{
 				if (getVertex(x, y) != finish)
 				{
-					Vertex s = this.getVertex(x, y);
-					start = s;
-					for (int j = 0; j < getHeight(); j++)
-					{
-						for (int i = 0; i < getWidth(); i++)
-						{
-							if(chars[j][i] == 'S')
-							{
-								chars[j][i] = ' ';
-							}
-						}
-					}
-					chars[y][x] = 'S';
+					start = this.getVertex(x, y);
+					invalidateTree();
 				}
 			}
 		}
@@ -328,30 +852,18 @@ public class Grid
 	}
 	
 	//Precondition: Takes the x and y coordinates for where the new end position should be located
-	//Postcondition: Changes the location of the end vertex and relocates the 'F' in the chars array
+	//Postcondition: Changes the location of the end vertex if it is an empty location (see isEmpty)
 	public boolean setFinish(int x, int y)
 	{
 		Vertex temp = finish;
 		
-		if (!this.getVertex(x, y).isWall())
+		if (isEmpty(this.getVertex(x, y)))
 		{
 			if (getVertex(x, y) != start)
 			{
 				if (getVertex(x, y) != finish)
 				{
-					Vertex f = this.getVertex(x, y);
-					finish = f;
-					for (int j = 0; j < getHeight(); j++)
-					{
-						for (int i = 0; i < getWidth(); i++)
-						{
-							if(chars[j][i] == 'F')
-							{
-								chars[j][i] = ' ';
-							}
-						}
-					}
-					chars[y][x] = 'F';
+					finish = this.getVertex(x, y);
 				}
 			}
 		}
@@ -368,35 +880,107 @@ public class Grid
 		
 	}
 	
+	//Precondition: A vertex of the grid
+	//Postcondition: Returns whether the start or finish can be put there: it is open floor, neither a wall nor a cell
+	//				 with a cost, since a printed puzzle shows only the 'S' or 'F' there and would lose the cost
+	private boolean isEmpty(Vertex v)
+	{
+		return !v.isWall() && v.getCost() == Vertex.VERTEX_DIST;
+	}
+	
+	//Precondition: Takes the x and y coordinates of a vertex and whether it should be a wall
+	//Postcondition: Builds or removes the wall there and returns true, or returns false without changing anything if
+	//				 the vertex is the start or the finish. Solves after the change see the new layout.
+	public boolean setWall(int x, int y, boolean wall)
+	{
+		Vertex v = getVertex(x, y);
+		if (v == start || v == finish)
+		{
+			return false;
+		}
+		if (v.isWall() != wall)
+		{
+			v.setWall(wall);
+			layoutHash ^= getCellHash(v.getIndex());
+			updateComponents(v);
+			invalidateTree();
+			if (planner != null)
+			{
+				planner.updateCell(v.getIndex());
+			}
+		}
+		return true;
+	}
+	
+	//Precondition: A vertex that has just become or stopped being a wall
+	//Postcondition: An opened vertex joins the components of its open neighbors. A new wall can only split a component
+	//				 if it had more than one open neighbor; the roots are left as they are, which still tells every
+	//				 truly disconnected pair apart, and are marked as no longer exact.
+	private void updateComponents(Vertex v)
+	{
+		int open = 0;
+		for (Vertex n: v.getNeighbors())
+		{
+			if (!n.isWall())
+			{
+				open++;
+				if (!v.isWall())
+				{
+					union(v.getIndex(), n.getIndex());
+				}
+			}
+		}
+		if (v.isWall() && open > 1)
+		{
+			componentsExact = false;
+		}
+	}
+	
 	//Precondition: A grid object has been created
 	//Post Condition: Returns a string that represents the original puzzle
 	public String toString()
 	{
-		String str = "";
+		StringBuilder str = new StringBuilder(getHeight() * (getWidth() + 1));
 		for (int y = 0; y < getHeight(); y++)
 		{
 			for(int x = 0; x < getWidth(); x++)
 			{
-				if(getVertex(x,y).isWall())
-				{
-					str += "X";
-				}
-				else if (getVertex(x,y) == getStart())
-				{
-					str += "S";
-				}
-				else if (getVertex(x,y) == getFinish())
-				{
-					str += "F";
-				}
-				else
-				{
-					str += " ";
-				}
+				str.append(getSymbol(getVertex(x, y)));
 			}
-			str += "\n";
+			str.append('\n');
 		}
-		return str;
+		return str.toString();
+	}
+	
+	//Precondition: The x and y coordinates of a vertex
+	//Postcondition: Returns the character that represents the vertex in a printed puzzle, as below
+	public char getSymbol(int x, int y)
+	{
+		return getSymbol(getVertex(x, y));
+	}
+	
+	//Precondition: A vertex of the grid
+	//Postcondition: Returns the character that represents the vertex in a printed puzzle: 'X', 'S', 'F', its cost as a
+	//				 digit if crossing it costs more than open floor, or ' '
+	private char getSymbol(Vertex v)
+	{
+		if (v.isWall())
+		{
+			return 'X';
+		}
+		else if (v == start)
+		{
+			return 'S';
+		}
+		else if (v == finish)
+		{
+			return 'F';
+		}
+		else if (v.getCost() != Vertex.VERTEX_DIST)
+		{
+			return (char) ('0' + v.getCost());
+		}
+		return ' ';
 	}
 	
 	//Precondition: A grid object has been created
@@ -404,147 +988,103 @@ public class Grid
 	public String[] toStringArray()
 	{
 		String[] str = new String[getHeight()];
-		String temp;
+		StringBuilder temp = new StringBuilder(getWidth());
 		for (int y = 0; y < getHeight(); y++)
 		{
-			temp = "";
+			temp.setLength(0);
 			for(int x = 0; x < getWidth(); x++)
 			{
-				if(getVertex(x,y).isWall())
-				{
-					temp += "X";
-				}
-				else if (getVertex(x,y) == getStart())
-				{
-					temp += "S";
-				}
-				else if (getVertex(x,y) == getFinish())
-				{
-					temp += "F";
-				}
-				else
+				temp.append(getSymbol(getVertex(x, y)));
+			}
+			str[y] = temp.toString();
+		}
+		return str;
+	}
+	
+	//Precondition: An ArrayList of vertices containing all the vertices that are in the solution path of a puzzle
+	//Postcondition: Returns a bitset with the index of every vertex on the path set, for constant time membership checks
+	public BitSet getPathCells(ArrayList<Vertex> path)
+	{
+		BitSet cells = new BitSet(vertices.length);
+		for (Vertex v: path)
+		{
+			cells.set(v.getIndex());
+		}
+		return cells;
+	}
+	
+	//Precondition: An ArrayList of vertices containing all the vertices that are in the solution path of a puzzle
+	//Postcondition: Returns the cost of the path, the sum of the lengths of the edges between its vertices. On a puzzle
+	//				 without cell costs this is the number of steps, path.size() - 1.
+	public int getPathCost(ArrayList<Vertex> path)
+	{
+		int cost = 0;
+		for (int i = 1; i < path.size(); i++)
+		{
+			Vertex from = path.get(i - 1);
+			for (Edge e: from.getNeighboringEdges())
+			{
+				if (e != null && e.getOtherLinkedVertex(from) == path.get(i))
 				{
-					temp += " ";
+					cost += e.getDistance();
+					break;
 				}
 			}
-			str[y] = temp;
 		}
-		return str;
+		return cost;
 	}
 	
 	//Precondition: An ArrayList of vertices containing all the vertices that are in the solution path of a puzzle
 	//Postcondition: Returns a string that includes the original puzzle with the solved path marked out
 	public String getSolution(ArrayList<Vertex> path)
 	{
-		String str = "";
+		return getSolution(getPathCells(path));
+	}
+	
+	//Precondition: A bitset of the vertex indexes in the solution path of a puzzle (see getPathCells)
+	//Postcondition: Returns a string that includes the original puzzle with the solved path marked out
+	public String getSolution(BitSet path)
+	{
+		StringBuilder str = new StringBuilder(getHeight() * (getWidth() + 1));
 		for (int y = 0; y < getHeight(); y++)
 		{
 			for(int x = 0; x < getWidth(); x++)
 			{
-				if(getVertex(x,y).isWall())
-				{
-					str += "X";
-				}
-				else if (getVertex(x,y) == getStart())
+				Vertex v = getVertex(x, y);
+				if (path.get(v.getIndex()) && !v.isWall() && v != start && v != finish)
 				{
-					str += "S";
-				}
-				else if (getVertex(x,y) == getFinish())
-				{
-					str += "F";
-				}
-				else if (path.contains(getVertex(x,y)))
-				{
-					str += "*";
+					str.append('*');
 				}
 				else
 				{
-					str += " ";
+					str.append(getSymbol(v));
 				}
 			}
-			str += "\n";
+			str.append('\n');
 		}
-		return str;
+		return str.toString();
 	}
 
 	//Precondition: A Grid object has been created
 	//Postcondition: Returns a ButtonGrid displaying the puzzle stored in the Grid object
 	public ButtonGrid drawPuzzle()
 	{
-		ButtonGrid puzzle = new ButtonGrid(this, toStringArray());
-		puzzle.frame.setBounds(new Rectangle(getWidth() * 30, getHeight() * 30 + 60));
-		puzzle.centerOnScreen();
-		
-		for (int y = 0; y < getHeight(); y++)
-		{
-			for (int x = 0; x < getWidth(); x++)
-			{
-				if (chars[y][x] == 'X')
-				{
-					 puzzle.getButton(y, x).setIcon(new ImageIcon("wall.png"));
-				}
-				else if (chars[y][x] == 'S')
-				{
-					puzzle.getButton(y, x).setIcon(new ImageIcon("start.png"));
-				}
-				else if (chars[y][x] == 'F')
-				{
-					puzzle.getButton(y, x).setIcon(new ImageIcon("finish.png"));
-				}
-				else if (chars[y][x] == ' ')
-				{
-					puzzle.getButton(y, x).setIcon(new ImageIcon("empty.png"));
-				}
-			}
-		}
-		return puzzle;
+		return new ButtonGrid(this);
 	}
 	
 	//Precondition: The vertices leading from a Grid object's start to its finish have been found and stored in an ArrayList
 	//Postcondition: Returns a ButtonGrid displaying the puzzle stored in the Grid object with its solution drawn in
-	public void drawSolution(ArrayList<Vertex> path)
+	public ButtonGrid drawSolution(ArrayList<Vertex> path)
 	{
-		ButtonGrid puzzleSolved = new ButtonGrid(this, toStringArray());
-		puzzleSolved.frame.setBounds(new Rectangle(getWidth() * 30, getHeight() * 30 + 60));
-		puzzleSolved.centerOnScreen();
-		
-		for (int y = 0; y < getHeight(); y++)
-		{
-			for (int x = 0; x < getWidth(); x++)
-			{
-				if (chars[y][x] == 'X')
-				{
-					 puzzleSolved.getButton(y, x).setIcon(new ImageIcon("wall.png"));
-				}
-				else if (getVertex(x,y) == start)
-				{
-					puzzleSolved.getButton(y, x).setIcon(new ImageIcon("start.png"));
-				}
-				else if (getVertex(x,y) == finish)
-				{
-					puzzleSolved.getButton(y, x).setIcon(new ImageIcon("finish.png"));
-				}
-				else 
-				{
-					puzzleSolved.getButton(y, x).setIcon(new ImageIcon("empty.png"));
-				}
-			}
-		}
-		for (int y = 0; y < getHeight(); y++)
-		{
-			for(int x = 0; x < getWidth(); x++)
-			{
-				if (path.contains(getVertex(x,y))) 
-				{ 
-					if (getVertex(x,y) != start)
-					{
-						if (getVertex(x,y) != finish)
-						{
-							puzzleSolved.getButton(y,x).setIcon(new ImageIcon("path.png"));
-						}
-					}
-				}
-			}
-		}
+		return drawSolution(getPathCells(path));
+	}
+	
+	//Precondition: A bitset of the vertex indexes leading from a Grid object's start to its finish (see getPathCells)
+	//Postcondition: Returns a ButtonGrid displaying the puzzle stored in the Grid object with its solution drawn in
+	public ButtonGrid drawSolution(BitSet path)
+	{
+		ButtonGrid puzzleSolved = new ButtonGrid(this);
+		puzzleSolved.showSolution(path);
+		return puzzleSolved;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,239 @@
+import java.util.ArrayList;
+import java.util.Collections;
+
+public class JumpPointSearch
+{
+	/* This class solves a Grid with Jump Point Search adapted to 4-connected movement. Every edge costs the same,
+	 * so many shortest paths are just reorderings of the same moves. The search only keeps the canonical one, where
+	 * vertical moves come first, and scans straight lines without adding the cells along them to the frontier.
+	 *
+	 * 	- Moving east or west, a cell is a jump point if the cell above (or below) it is open while the cell above
+	 * 	  (or below) the one before it was a wall. Only there can turning north (or south) be canonical.
+	 * 	- Moving north or south, a cell is a jump point if a horizontal scan from it finds a jump point, since
+	 * 	  turning east or west is always allowed after a vertical move.
+	 * 	- The finish is always a jump point.
+	 *
+	 * The jump points are searched with A* and the Manhattan estimate, so the path found is a shortest one, and it
+	 * is filled back in cell by cell so callers get the same kind of path Grid.getPath returns. The per-cell state is
+	 * borrowed from the grid (Grid.getSearchState) and cleared in constant time, so a solve allocates nothing in
+	 * proportion to the grid.
+	 */
+
+	private static final int REACH_STATE = 0;	//the grid's search states used for reach and parent
+	private static final int PARENT_STATE = 1;
+
+	private Grid grid;
+	private int width, height;
+	private CellValues reach;	//reach value of every jump point found so far, in cells, marked once it is closed
+	private CellValues parent;	//the jump point each jump point was reached from
+	private int expanded;
+	private SolveMonitor monitor; //the grid's, or null
+
+	//JumpPointSearch Constructor
+	//Precondition: A grid with a start and a finish, where every edge has the default length
+	//Postcondition: A search ready to solve the grid
+	public JumpPointSearch(Grid grid)
+	{
+		this.grid = grid;
+		width = grid.getWidth();
+		height = grid.getHeight();
+		monitor = grid.getSolveMonitor();
+	}
+
+	//Precondition: An initialized search
+	//Postcondition: Solves for and returns the shortest path from the start to the finish, one vertex per cell
+	public ArrayList<Vertex> solve()
+	{
+		int start = grid.getStart().getIndex();
+		int finish = grid.getFinish().getIndex();
+		reach = grid.getSearchState(REACH_STATE);
+		parent = grid.getSearchState(PARENT_STATE);
+		reach.clear(Integer.MAX_VALUE);
+		parent.clear(-1);
+		expanded = 0;
+
+		CellHeap open = new CellHeap();
+		reach.set(start, 0);
+		parent.set(start, -1);
+		open.add(start, getEstimate(start, finish));
+		while (!open.isEmpty())
+		{
+			int current = open.poll();
+			if (reach.isMarked(current))
+			{
+				continue;
+			}
+			reach.mark(current);
+			expanded++;
+			if (current == finish)
+			{
+				return buildPath(start, finish);
+			}
+
+			for (int dir = 0; dir < 4; dir++)
+			{
+				if (!isSuccessorDirection(current, dir))
+				{
+					continue;
+				}
+				int jumpPoint = jump(current, dir, finish);
+				if (jumpPoint != -1 && !reach.isMarked(jumpPoint))
+				{
+					int value = reach.get(current) + getEstimate(current, jumpPoint);
+					if (value < reach.get(jumpPoint))
+					{
+						reach.set(jumpPoint, value);
+						parent.set(jumpPoint, current);
+						open.add(jumpPoint, value + getEstimate(jumpPoint, finish));
+					}
+				}
+			}
+			if (monitor != null && (expanded & (SolveMonitor.REPORT_INTERVAL - 1)) == 0)
+			{
+				monitor.report(expanded, reach.get(current));
+			}
+		}
+		throw new UnsolvablePuzzleException();
+	}
+
+	//Precondition: A finished solve
+	//Postcondition: Returns how many jump points were resolved
+	public int getExpanded()
+	{
+		return expanded;
+	}
+
+	//Precondition: A jump point being expanded and one of the 4 directions in Vertex
+	//Postcondition: Returns whether moving that way from the jump point can start a canonical path
+	private boolean isSuccessorDirection(int cell, int dir)
+	{
+		if (parent.get(cell) == -1)
+		{
+			return true;
+		}
+		int arrived = getDirection(parent.get(cell), cell);
+		if (dir == Vertex.getOppositeDirection(arrived))
+		{
+			return false;
+		}
+		if (arrived == Vertex.NORTH || arrived == Vertex.SOUTH)
+		{
+			//after a vertical move both turns and going straight on are natural
+			return true;
+		}
+		if (dir == arrived)
+		{
+			return true;
+		}
+		//after a horizontal move a turn is only canonical when it is forced
+		int behind = step(cell, Vertex.getOppositeDirection(arrived));
+		return isOpen(step(cell, dir)) && !isOpen(step(behind, dir));
+	}
+
+	//Precondition: A cell and a direction to scan in
+	//Postcondition: Returns the first jump point in that direction, or -1 if a wall or the border is hit first
+	private int jump(int cell, int dir, int finish)
+	{
+		boolean horizontal = dir == Vertex.EAST || dir == Vertex.WEST;
+		int previous = cell;
+		int current = step(cell, dir);
+		while (isOpen(current))
+		{
+			if (current == finish)
+			{
+				return current;
+			}
+			if (horizontal)
+			{
+				if (hasForcedTurn(current, previous, Vertex.NORTH) || hasForcedTurn(current, previous, Vertex.SOUTH))
+				{
+					return current;
+				}
+			}
+			else if (jump(current, Vertex.EAST, finish) != -1 || jump(current, Vertex.WEST, finish) != -1)
+			{
+				return current;
+			}
+			previous = current;
+			current = step(current, dir);
+		}
+		return -1;
+	}
+
+	//Precondition: A cell reached by a horizontal move, the cell before it and a vertical direction
+	//Postcondition: Returns whether turning that way is forced here: open beside this cell but walled beside the last
+	private boolean hasForcedTurn(int cell, int previous, int dir)
+	{
+		return isOpen(step(cell, dir)) && !isOpen(step(previous, dir));
+	}
+
+	//Precondition: A cell (or -1) and one of the 4 directions in Vertex
+	//Postcondition: Returns the neighboring cell in that direction, or -1 if it would be off the grid
+	private int step(int cell, int dir)
+	{
+		if (cell == -1)
+		{
+			return -1;
+		}
+		int x = cell % width;
+		int y = cell / width;
+		if (dir == Vertex.EAST)
+		{
+			return x + 1 < width ? cell + 1 : -1;
+		}
+		else if (dir == Vertex.WEST)
+		{
+			return x > 0 ? cell - 1 : -1;
+		}
+		else if (dir == Vertex.NORTH)
+		{
+			return y > 0 ? cell - width : -1;
+		}
+		return y + 1 < height ? cell + width : -1;
+	}
+
+	//Precondition: A cell (or -1)
+	//Postcondition: Returns whether the cell is on the grid and not a wall
+	private boolean isOpen(int cell)
+	{
+		return cell != -1 && !grid.getVertex(cell).isWall();
+	}
+
+	//Precondition: Two different cells on the same row or column
+	//Postcondition: Returns the direction that leads from the first to the second
+	private int getDirection(int from, int to)
+	{
+		if (from / width == to / width)
+		{
+			return to > from ? Vertex.EAST : Vertex.WEST;
+		}
+		return to > from ? Vertex.SOUTH : Vertex.NORTH;
+	}
+
+	//Precondition: Two cells
+	//Postcondition: Returns the Manhattan distance between them in edge lengths (exact for cells on one line)
+	private int getEstimate(int a, int b)
+	{
+		return (Math.abs(a % width - b % width) + Math.abs(a / width - b / width)) * Vertex.VERTEX_DIST;
+	}
+
+	//Precondition: The finish has been resolved
+	//Postcondition: Returns the path from the start to the finish with every cell between the jump points filled in
+	private ArrayList<Vertex> buildPath(int start, int finish)
+	{
+		ArrayList<Vertex> path = new ArrayList<Vertex>(reach.get(finish) / Vertex.VERTEX_DIST + 1);
+		int current = finish;
+		while (current != start)
+		{
+			int back = getDirection(current, parent.get(current));
+			for (int cell = current; cell != parent.get(current); cell = step(cell, back))
+			{
+				path.add(grid.getVertex(cell));
+			}
+			current = parent.get(current);
+		}
+		path.add(grid.getVertex(start));
+		Collections.reverse(path);
+		return path;
+	}
+}
@@ -0,0 +1,279 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class LifelongPlanner
+{
+	/* This class solves a Grid with Lifelong Planning A* (LPA*), which keeps its work between solves so that after a
+	 * few walls are built or removed only the part of the grid whose distances actually changed is searched again.
+	 *
+	 * Every cell has two distance estimates from the start: g, the distance it was last resolved at, and rhs, the
+	 * best distance its neighbors' g values offer right now. A cell is consistent when the two agree. A wall change
+	 * only touches the rhs of the cell and its neighbors (updateCell), and the next solve processes inconsistent
+	 * cells in order of min(g, rhs) plus the Manhattan estimate to the finish, stopping as soon as the finish is
+	 * consistent and nothing in the queue could still improve it. The first solve is an ordinary A* search.
+	 *
+	 * The start and finish are fixed for the life of the planner; Grid makes a new one when either moves. g and rhs
+	 * are borrowed from the grid (Grid.getSearchState) and cleared in constant time, so a new planner allocates
+	 * nothing in proportion to the grid.
+	 */
+
+	private static final int INFINITY = Integer.MAX_VALUE;
+	private static final int G_STATE = 4;	//the grid's search states used for g and rhs
+	private static final int RHS_STATE = 5;
+
+	private Grid grid;
+	private int width;
+	private int start, finish;
+	private CellValues g;
+	private CellValues rhs;
+	private long[] keys;	//queue of inconsistent cells: keys[i] is the key cells[i] was queued with
+	private int[] cells;
+	private int size;
+	private int expanded;
+
+	//LifelongPlanner Constructor
+	//Precondition: A grid with a start and a finish
+	//Postcondition: A planner for the current start and finish with nothing searched yet
+	public LifelongPlanner(Grid grid)
+	{
+		this.grid = grid;
+		width = grid.getWidth();
+		start = grid.getStart().getIndex();
+		finish = grid.getFinish().getIndex();
+		g = grid.getSearchState(G_STATE);
+		rhs = grid.getSearchState(RHS_STATE);
+		g.clear(INFINITY);
+		rhs.clear(INFINITY);
+		keys = new long[16];
+		cells = new int[16];
+
+		rhs.set(start, 0);
+		push(start);
+	}
+
+	//Precondition: An initialized planner
+	//Postcondition: Returns the index of the start it plans from
+	public int getStart()
+	{
+		return start;
+	}
+
+	//Precondition: An initialized planner
+	//Postcondition: Returns the index of the finish it plans to
+	public int getFinish()
+	{
+		return finish;
+	}
+
+	//Precondition: A finished solve
+	//Postcondition: Returns how many cells that solve had to process
+	public int getExpanded()
+	{
+		return expanded;
+	}
+
+	//Precondition: The index of a cell that has just become or stopped being a wall
+	//Postcondition: The cell and its neighbors are queued to be repaired by the next solve
+	public void updateCell(int cell)
+	{
+		Vertex v = grid.getVertex(cell);
+		updateRhs(v);
+		for (Vertex n: v.getNeighbors())
+		{
+			updateRhs(n);
+		}
+	}
+
+	//Precondition: An initialized planner
+	//Postcondition: Brings the distances up to date with the walls and returns the shortest path from the start to
+	//				 the finish. Throws an UnsolvablePuzzleException if there is none.
+	public ArrayList<Vertex> solve()
+	{
+		expanded = 0;
+		while (size > 0 && (keys[0] < getKey(finish) || rhs.get(finish) != g.get(finish)))
+		{
+			int cell = poll();
+			if (g.get(cell) == rhs.get(cell))
+			{
+				//queued again since, or already repaired by another copy
+				continue;
+			}
+			expanded++;
+			Vertex v = grid.getVertex(cell);
+			if (g.get(cell) > rhs.get(cell))
+			{
+				g.set(cell, rhs.get(cell));
+			}
+			else
+			{
+				g.set(cell, INFINITY);
+				updateRhs(v);
+			}
+			for (Vertex n: v.getNeighbors())
+			{
+				updateRhs(n);
+			}
+			//stopping here leaves every cell queued that still needs repairing, so the next solve finishes the job
+			SolveMonitor monitor = grid.getSolveMonitor();
+			if (monitor != null && (expanded & (SolveMonitor.REPORT_INTERVAL - 1)) == 0)
+			{
+				monitor.report(expanded, Math.min(g.get(cell), rhs.get(cell)));
+			}
+		}
+
+		if (g.get(finish) == INFINITY)
+		{
+			throw new UnsolvablePuzzleException();
+		}
+		return buildPath();
+	}
+
+	//Precondition: A vertex of the grid
+	//Postcondition: Recomputes the best distance the vertex's neighbors offer it and queues it if it is now inconsistent
+	private void updateRhs(Vertex v)
+	{
+		int cell = v.getIndex();
+		if (cell != start)
+		{
+			int best = INFINITY;
+			if (!v.isWall())
+			{
+				Edge[] edges = v.getNeighboringEdges();
+				for (int dir = 0; dir < edges.length; dir++)
+				{
+					if (edges[dir] != null)
+					{
+						Vertex n = edges[dir].getOtherLinkedVertex(v);
+						if (!n.isWall() && g.get(n.getIndex()) != INFINITY)
+						{
+							best = Math.min(best, g.get(n.getIndex()) + edges[dir].getDistance());
+						}
+					}
+				}
+			}
+			rhs.set(cell, best);
+		}
+		if (g.get(cell) != rhs.get(cell))
+		{
+			push(cell);
+		}
+	}
+
+	//Precondition: The index of a cell
+	//Postcondition: Returns its queue key: min(g, rhs) plus the estimate to the finish in the high half and min(g, rhs)
+	//				 in the low half, so comparing keys compares the first part and breaks ties on the second
+	private long getKey(int cell)
+	{
+		int m = Math.min(g.get(cell), rhs.get(cell));
+		if (m == INFINITY)
+		{
+			return Long.MAX_VALUE;
+		}
+		int h = (Math.abs(cell % width - finish % width) + Math.abs(cell / width - finish / width)) * Vertex.VERTEX_DIST;
+		return ((long) (m + h) << 32) | m;
+	}
+
+	//Precondition: The finish has a finite distance
+	//Postcondition: Returns the path found by walking from the finish to whichever neighbor it is shortest to reach
+	//				 from, until the start is reached, and reversing it. On a tie the earliest direction wins.
+	private ArrayList<Vertex> buildPath()
+	{
+		ArrayList<Vertex> path = new ArrayList<Vertex>();
+		Vertex current = grid.getVertex(finish);
+		path.add(current);
+		while (current.getIndex() != start)
+		{
+			Vertex next = null;
+			long best = Long.MAX_VALUE;
+			Edge[] edges = current.getNeighboringEdges();
+			for (int dir = 0; dir < edges.length; dir++)
+			{
+				if (edges[dir] != null)
+				{
+					Vertex n = edges[dir].getOtherLinkedVertex(current);
+					int reach = g.get(n.getIndex());
+					if (!n.isWall() && reach != INFINITY && (long) reach + edges[dir].getDistance() < best)
+					{
+						best = (long) reach + edges[dir].getDistance();
+						next = n;
+					}
+				}
+			}
+			current = next;
+			path.add(current);
+		}
+		Collections.reverse(path);
+		return path;
+	}
+
+	//Precondition: An inconsistent cell
+	//Postcondition: The cell is added to the queue with its current key. An older copy is left behind and skipped later.
+	private void push(int cell)
+	{
+		if (size == keys.length)
+		{
+			keys = Arrays.copyOf(keys, size * 2);
+			cells = Arrays.copyOf(cells, size * 2);
+		}
+		long key = getKey(cell);
+		int i = size++;
+		while (i > 0)
+		{
+			int parent = (i - 1) / 2;
+			if (keys[parent] <= key)
+			{
+				break;
+			}
+			keys[i] = keys[parent];
+			cells[i] = cells[parent];
+			i = parent;
+		}
+		keys[i] = key;
+		cells[i] = cell;
+	}
+
+	//Precondition: A queue holding at least one copy of every inconsistent cell with its current key
+	//Postcondition: Removes and returns the cell with the lowest key, dropping copies whose key is out of date on the way
+	private int poll()
+	{
+		while (true)
+		{
+			int top = cells[0];
+			long topKey = keys[0];
+			long key = keys[--size];
+			int cell = cells[size];
+			int i = 0;
+			while (true)
+			{
+				int child = 2 * i + 1;
+				if (child >= size)
+				{
+					break;
+				}
+				if (child + 1 < size && keys[child + 1] < keys[child])
+				{
+					child++;
+				}
+				if (keys[child] >= key)
+				{
+					break;
+				}
+				keys[i] = keys[child];
+				cells[i] = cells[child];
+				i = child;
+			}
+			if (size > 0)
+			{
+				keys[i] = key;
+				cells[i] = cell;
+			}
+
+			//a copy queued with an older key is dropped, the one with the current key is still in the queue
+			if (topKey == getKey(top) || g.get(top) == rhs.get(top))
+			{
+				return top;
+			}
+		}
+	}
+}
@@ -0,0 +1,218 @@
+import java.util.Random;
+
+public class MazeGenerator
+{
+	/* This class builds puzzles in the same text format as the bundled .txt files, so benchmarks and stress runs can
+	 * use mazes of any size. Every puzzle is surrounded by walls, has its start near the top left and its finish
+	 * near the bottom right, and is the same for the same seed.
+	 */
+
+	public static final int OPEN_FIELD = 0;		//almost no walls, like a warehouse floor with a few pillars
+	public static final int PERFECT_MAZE = 1;	//exactly one route between any two cells
+	public static final int SPARSE_CORRIDORS = 2;	//long corridors joined by a few cross passages
+	public static final int WEIGHTED_TERRAIN = 3;	//an open field with patches that cost 2 to 9 to cross
+	public static final String[] KIND_NAMES = {"open", "maze", "corridors", "terrain"};
+
+	//Precondition: One of the kinds above, the dimensions of the puzzle (at least 5 by 5) and a seed
+	//Postcondition: Returns the rows of the generated puzzle
+	public static String[] generate(int kind, int width, int height, long seed)
+	{
+		char[][] cells;
+		Random rand = new Random(seed);
+		if (kind == OPEN_FIELD)
+		{
+			cells = openField(width, height, rand);
+		}
+		else if (kind == PERFECT_MAZE)
+		{
+			cells = perfectMaze(width, height, rand);
+		}
+		else if (kind == SPARSE_CORRIDORS)
+		{
+			cells = sparseCorridors(width, height, rand);
+		}
+		else if (kind == WEIGHTED_TERRAIN)
+		{
+			cells = weightedTerrain(width, height, rand);
+		}
+		else
+		{
+			throw new IllegalArgumentException("Unknown maze kind " + kind);
+		}
+		cells[1][1] = 'S';
+		cells[lastOdd(height)][lastOdd(width)] = 'F';
+
+		String[] rows = new String[height];
+		for (int y = 0; y < height; y++)
+		{
+			rows[y] = new String(cells[y]);
+		}
+		return rows;
+	}
+
+	//Precondition: One of the kinds above, the dimensions of the puzzle and a seed
+	//Postcondition: Returns the generated puzzle as one string, one row per line, ready for new Scanner(String)
+	public static String generateText(int kind, int width, int height, long seed)
+	{
+		StringBuilder str = new StringBuilder(height * (width + 1));
+		for (String row: generate(kind, width, height, seed))
+		{
+			str.append(row).append('\n');
+		}
+		return str.toString();
+	}
+
+	//Precondition: The dimensions of the puzzle and a random number generator
+	//Postcondition: Returns an empty field with a wall border and about one cell in twenty blocked
+	private static char[][] openField(int width, int height, Random rand)
+	{
+		char[][] cells = filled(width, height, ' ');
+		for (int y = 1; y < height - 1; y++)
+		{
+			for (int x = 1; x < width - 1; x++)
+			{
+				if (rand.nextInt(20) == 0)
+				{
+					cells[y][x] = 'X';
+				}
+			}
+		}
+		return cells;
+	}
+
+	//Precondition: The dimensions of the puzzle and a random number generator
+	//Postcondition: Returns an open field covered in square patches of mud, stairs and the like, each patch costing
+	//				 the same digit from 2 to 9 to cross, with about one open floor cell in three left uncovered
+	private static char[][] weightedTerrain(int width, int height, Random rand)
+	{
+		char[][] cells = openField(width, height, rand);
+		for (int patch = 0; patch < width * height / 40; patch++)
+		{
+			int cx = 1 + rand.nextInt(width - 2);
+			int cy = 1 + rand.nextInt(height - 2);
+			int radius = 1 + rand.nextInt(3);
+			char cost = (char) ('2' + rand.nextInt(8));
+			for (int y = Math.max(1, cy - radius); y <= Math.min(height - 2, cy + radius); y++)
+			{
+				for (int x = Math.max(1, cx - radius); x <= Math.min(width - 2, cx + radius); x++)
+				{
+					if (cells[y][x] != 'X')
+					{
+						cells[y][x] = cost;
+					}
+				}
+			}
+		}
+		return cells;
+	}
+
+	//Precondition: The dimensions of the puzzle and a random number generator
+	//Postcondition: Returns a maze carved by an iterative depth-first search over the odd cells, so every open cell
+	//				 is connected to every other by exactly one route
+	private static char[][] perfectMaze(int width, int height, Random rand)
+	{
+		char[][] cells = filled(width, height, 'X');
+		int columns = (lastOdd(width) + 1) / 2;	//number of odd x coordinates inside the border
+		int rows = (lastOdd(height) + 1) / 2;
+		int[] stack = new int[columns * rows];
+		int size = 0;
+		int[] order = {0, 1, 2, 3};
+
+		cells[1][1] = ' ';
+		stack[size++] = 0;
+		while (size > 0)
+		{
+			int room = stack[size - 1];
+			int cx = room % columns, cy = room / columns;
+
+			//shuffles the four directions and carves towards the first unvisited room
+			for (int i = 3; i > 0; i--)
+			{
+				int j = rand.nextInt(i + 1);
+				int t = order[i];
+				order[i] = order[j];
+				order[j] = t;
+			}
+			boolean carved = false;
+			for (int dir: order)
+			{
+				int nx = cx + (dir == Vertex.EAST ? 1 : dir == Vertex.WEST ? -1 : 0);
+				int ny = cy + (dir == Vertex.SOUTH ? 1 : dir == Vertex.NORTH ? -1 : 0);
+				if (nx >= 0 && nx < columns && ny >= 0 && ny < rows && cells[2 * ny + 1][2 * nx + 1] == 'X')
+				{
+					cells[cy + ny + 1][cx + nx + 1] = ' ';
+					cells[2 * ny + 1][2 * nx + 1] = ' ';
+					stack[size++] = ny * columns + nx;
+					carved = true;
+					break;
+				}
+			}
+			if (!carved)
+			{
+				size--;
+			}
+		}
+		return cells;
+	}
+
+	//Precondition: The dimensions of the puzzle and a random number generator
+	//Postcondition: Returns a puzzle of horizontal corridors on every other odd row, joined by a couple of vertical
+	//				 passages between each pair of corridors
+	private static char[][] sparseCorridors(int width, int height, Random rand)
+	{
+		char[][] cells = filled(width, height, 'X');
+		int last = lastOdd(height);
+		for (int y = 1; y <= last; y += 4)
+		{
+			for (int x = 1; x < width - 1; x++)
+			{
+				cells[y][x] = ' ';
+			}
+		}
+		for (int y = 1; y + 4 <= last; y += 4)
+		{
+			for (int k = 0; k < 2; k++)
+			{
+				int x = 1 + rand.nextInt(width - 2);
+				for (int d = 1; d < 4; d++)
+				{
+					cells[y + d][x] = ' ';
+				}
+			}
+		}
+
+		//makes sure the bottom odd row (where the finish goes) is joined to the last corridor
+		for (int y = 1 + ((last - 1) / 4) * 4; y <= last; y++)
+		{
+			cells[y][lastOdd(width)] = ' ';
+		}
+		for (int x = 1; x < width - 1; x++)
+		{
+			cells[last][x] = ' ';
+		}
+		return cells;
+	}
+
+	//Precondition: The dimensions of the puzzle and the character to fill it with
+	//Postcondition: Returns the filled puzzle with a wall around its border
+	private static char[][] filled(int width, int height, char c)
+	{
+		char[][] cells = new char[height][width];
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				boolean border = x == 0 || y == 0 || x == width - 1 || y == height - 1;
+				cells[y][x] = border ? 'X' : c;
+			}
+		}
+		return cells;
+	}
+
+	//Precondition: A dimension of the puzzle
+	//Postcondition: Returns the last odd coordinate that is inside the border
+	private static int lastOdd(int size)
+	{
+		return size % 2 == 0 ? size - 3 : size - 2;
+	}
+}
@@ -0,0 +1,210 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ParallelSearch
+{
+	/* This class solves a FlatGrid on many threads at once with delta-stepping. Cells are kept in buckets of width
+	 * delta by reach value and each bucket is relaxed in parallel before moving on to the next. Every edge of a
+	 * FlatGrid has the same length, so with delta equal to that length a bucket is exactly one ring of cells around
+	 * the start, nothing in it can lower anything else in it, and the buckets are processed like the levels of a
+	 * breadth-first search.
+	 *
+	 * A ring is split into chunks of CHUNK cells that the ForkJoinPool relaxes at the same time. Reach values live in
+	 * one shared AtomicIntegerArray and are lowered with compareAndSet. Every cell reached from a ring gets the same
+	 * reach value, so the lowest value is simply the first one written, and the thread whose write succeeds is the
+	 * one that puts the cell in the next ring, so no cell is added twice.
+	 *
+	 * The reach values up to the finish come out the same as FlatGrid.getPath's, and the path is walked back the
+	 * same way, so the result is identical to the sequential solver's whatever the number of threads.
+	 */
+
+	private static final int CHUNK = 1024; //cells of a ring relaxed by one task
+
+	private FlatGrid grid;
+	private ForkJoinPool pool;
+	private int width;
+	private AtomicIntegerArray reach; //reach value + 1 of every cell, or 0 while it has not been reached
+	private int rings;
+
+	//ParallelSearch Constructor
+	//Precondition: A puzzle with a start and a finish and the pool of threads to solve it on
+	//Postcondition: A search ready to solve the puzzle
+	public ParallelSearch(FlatGrid grid, ForkJoinPool pool)
+	{
+		this.grid = grid;
+		this.pool = pool;
+		width = grid.getWidth();
+	}
+
+	//Precondition: An initialized search
+	//Postcondition: Solves for and returns the cell indexes of the shortest path from the start to the finish, the
+	//				 same path FlatGrid.getPath returns. Throws an UnsolvablePuzzleException if there is none.
+	public int[] solve()
+	{
+		int start = grid.getStartIndex();
+		int finish = grid.getFinishIndex();
+		reach = new AtomicIntegerArray(grid.getCellCount());
+		reach.set(start, 1);
+		int[] ring = {start};
+		rings = 0;
+
+		while (reach.get(finish) == 0)
+		{
+			if (ring.length == 0)
+			{
+				throw new UnsolvablePuzzleException();
+			}
+			rings++;
+			int value = rings + 1;
+			if (ring.length <= CHUNK)
+			{
+				//not worth handing to other threads
+				ring = relax(ring, 0, ring.length, value);
+			}
+			else
+			{
+				int[][] parts = new int[(ring.length + CHUNK - 1) / CHUNK][];
+				pool.invoke(new RelaxTask(ring, value, parts, 0, parts.length));
+				ring = concat(parts);
+			}
+		}
+
+		//walks back from the finish to the start along the first neighbor (east, north, west, south) one step closer
+		int[] path = new int[reach.get(finish)];
+		int current = finish;
+		for (int i = path.length - 1; i > 0; i--)
+		{
+			path[i] = current;
+			current = getCloserNeighbor(current);
+		}
+		path[0] = start;
+		return path;
+	}
+
+	//Precondition: A finished solve
+	//Postcondition: Returns how many rings (buckets) were relaxed to reach the finish
+	public int getRings()
+	{
+		return rings;
+	}
+
+	//Precondition: A ring of cells, the part of it to relax and the reach value + 1 of the ring after it
+	//Postcondition: Claims every open, unreached neighbor of the cells in that part and returns the ones claimed
+	private int[] relax(int[] ring, int from, int to, int value)
+	{
+		int[] claimed = new int[4 * (to - from)];
+		int count = 0;
+		for (int i = from; i < to; i++)
+		{
+			int cell = ring[i];
+			int x = cell % width;
+			if (x < width - 1)
+			{
+				count = claim(cell + 1, value, claimed, count);
+			}
+			if (cell >= width)
+			{
+				count = claim(cell - width, value, claimed, count);
+			}
+			if (x > 0)
+			{
+				count = claim(cell - 1, value, claimed, count);
+			}
+			if (cell + width < grid.getCellCount())
+			{
+				count = claim(cell + width, value, claimed, count);
+			}
+		}
+		return Arrays.copyOf(claimed, count);
+	}
+
+	//Precondition: A neighboring cell, its new reach value + 1 and the cells claimed so far
+	//Postcondition: Sets the cell's reach value if it is open and no thread has reached it yet, adding it to the
+	//				 claimed cells when this thread was the one to set it. Returns the new number of claimed cells.
+	private int claim(int cell, int value, int[] claimed, int count)
+	{
+		if (!grid.isWall(cell) && reach.get(cell) == 0 && reach.compareAndSet(cell, 0, value))
+		{
+			claimed[count++] = cell;
+		}
+		return count;
+	}
+
+	//Precondition: A reached cell other than the start
+	//Postcondition: Returns the first neighbor, checked east, north, west then south like FlatGrid, that is one step
+	//				 closer to the start
+	private int getCloserNeighbor(int cell)
+	{
+		int x = cell % width;
+		int closer = reach.get(cell) - 1;
+		if (x < width - 1 && reach.get(cell + 1) == closer)
+		{
+			return cell + 1;
+		}
+		if (cell >= width && reach.get(cell - width) == closer)
+		{
+			return cell - width;
+		}
+		if (x > 0 && reach.get(cell - 1) == closer)
+		{
+			return cell - 1;
+		}
+		return cell + width;
+	}
+
+	//Precondition: The cells claimed by each chunk of a ring
+	//Postcondition: Returns them all in one array, the next ring
+	private static int[] concat(int[][] parts)
+	{
+		int size = 0;
+		for (int[] part: parts)
+		{
+			size += part.length;
+		}
+		int[] ring = new int[size];
+		int at = 0;
+		for (int[] part: parts)
+		{
+			System.arraycopy(part, 0, ring, at, part.length);
+			at += part.length;
+		}
+		return ring;
+	}
+
+	private class RelaxTask extends RecursiveAction
+	{
+		/* Relaxes a range of the chunks of a ring, splitting it in half until each task has a single chunk
+		 */
+
+		private static final long serialVersionUID = 1L;
+
+		private int[] ring;
+		private int value;
+		private int[][] parts;
+		private int from, to;
+
+		RelaxTask(int[] ring, int value, int[][] parts, int from, int to)
+		{
+			this.ring = ring;
+			this.value = value;
+			this.parts = parts;
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute()
+		{
+			if (to - from == 1)
+			{
+				parts[from] = relax(ring, from * CHUNK, Math.min(ring.length, (from + 1) * CHUNK), value);
+			}
+			else
+			{
+				int middle = (from + to) >>> 1;
+				invokeAll(new RelaxTask(ring, value, parts, from, middle), new RelaxTask(ring, value, parts, middle, to));
+			}
+		}
+	}
+}
@@ -0,0 +1,113 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+public class PuzzleConverter
+{
+	/* This class converts puzzles between the text format and the binary format described in FlatGrid. The input
+	 * can be in either format. The output is written as text when its name ends in ".txt" and in the binary format
+	 * otherwise, so "java PuzzleConverter Large.txt Large.maze" packs a puzzle and the reverse unpacks it. An output
+	 * ending in ".tiles" is written in the tiled format of TiledGrid, streaming text input so it can be any size.
+	 *
+	 * The binary format has no room for cell costs, so weighted puzzles cannot be converted. Every text reader trims
+	 * the lines, so when a puzzle is written as text the open cells at either end of a row are written as '1', plain
+	 * floor with the cost of a space, and the puzzle reads back with the same layout even without a wall around it.
+	 *
+	 * Usage: java PuzzleConverter input output
+	 */
+
+	public static void main(String[] args)
+	{
+		if (args.length != 2)
+		{
+			System.err.println("Usage: java PuzzleConverter input output");
+			System.exit(1);
+		}
+
+		File input = new File(args[0]);
+		File output = new File(args[1]);
+		try
+		{
+			if (output.getName().endsWith(".tiles"))
+			{
+				TiledGrid.convert(input, output);
+				TiledGrid tiled = TiledGrid.open(output);
+				tiled.close();
+				System.out.println(input + " (" + input.length() + " bytes) -> " + output + " (" + output.length() + " bytes), "
+						+ tiled.getWidth() + "x" + tiled.getHeight());
+				return;
+			}
+			FlatGrid grid = FlatGrid.load(input);
+			if (grid.isWeighted())
+			{
+				throw new IOException(input + " has cell costs, which the binary format cannot store");
+			}
+			if (output.getName().endsWith(".txt"))
+			{
+				writeText(grid, output);
+			}
+			else
+			{
+				grid.save(output);
+			}
+			System.out.println(input + " (" + input.length() + " bytes) -> " + output + " (" + output.length() + " bytes), "
+					+ grid.getWidth() + "x" + grid.getHeight());
+		}
+		catch (IOException e)
+		{
+			System.err.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	//Precondition: A puzzle and the file to write it to
+	//Postcondition: Writes the puzzle in the text format, one row per line, without building the whole text in memory.
+	//				 Open cells are written as ' ', except before the first and after the last wall, start or finish of
+	//				 a row, where they are written as '1' so that trimming the line does not move or drop them.
+	public static void writeText(FlatGrid grid, File file) throws IOException
+	{
+		BufferedWriter out = new BufferedWriter(new FileWriter(file), 1 << 16);
+		try
+		{
+			for (int y = 0; y < grid.getHeight(); y++)
+			{
+				int first = grid.getWidth();	//column of the first cell in the row that is not open floor
+				int last = -1;					//column of the last one
+				for (int x = 0; x < grid.getWidth(); x++)
+				{
+					if (grid.getSymbol(x, y) != ' ')
+					{
+						first = Math.min(first, x);
+						last = x;
+					}
+				}
+				for (int x = 0; x < grid.getWidth(); x++)
+				{
+					int cell = grid.getIndex(x, y);
+					if (grid.isWall(cell))
+					{
+						out.write('X');
+					}
+					else if (cell == grid.getStartIndex())
+					{
+						out.write('S');
+					}
+					else if (cell == grid.getFinishIndex())
+					{
+						out.write('F');
+					}
+					else
+					{
+						out.write(x < first || x > last ? '1' : ' ');
+					}
+				}
+				out.write('\n');
+			}
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+}
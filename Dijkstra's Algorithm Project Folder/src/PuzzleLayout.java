@@ -0,0 +1,26 @@
+public interface PuzzleLayout
+{
+	/* What PuzzleView needs to draw a puzzle: its size, what is in each cell and where the start and finish are.
+	 * Grid provides it for puzzles small enough to hold a Vertex per cell, and FlatGrid for the ones that are not.
+	 */
+
+	//Precondition: A puzzle has been read
+	//Postcondition: Returns the width of the puzzle in cells
+	int getWidth();
+
+	//Precondition: A puzzle has been read
+	//Postcondition: Returns the height of the puzzle in cells
+	int getHeight();
+
+	//Precondition: The x and y coordinates of a cell
+	//Postcondition: Returns the character the cell is written as in the text format: 'X', 'S', 'F', a cost digit or ' '
+	char getSymbol(int x, int y);
+
+	//Precondition: A puzzle has been read
+	//Postcondition: Returns the index (y * width + x) of the start, or -1 if there is none
+	int getStartIndex();
+
+	//Precondition: A puzzle has been read
+	//Postcondition: Returns the index (y * width + x) of the finish, or -1 if there is none
+	int getFinishIndex();
+}
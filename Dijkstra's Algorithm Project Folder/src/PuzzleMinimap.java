@@ -0,0 +1,129 @@
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+public class PuzzleMinimap extends JComponent
+{
+	/* This class shows the whole of the puzzle a PuzzleView is drawing, shrunk to at most SIZE pixels a side, with a
+	 * rectangle around the part the view's scroll pane shows. Clicking or dragging in it scrolls the view there. The
+	 * overview image comes from PuzzleView.getOverview and is only redrawn when the view says the puzzle or the path
+	 * has changed, so scrolling and zooming just move the rectangle.
+	 */
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int SIZE = 160;
+
+	private PuzzleView view;
+	private JViewport viewport;
+	private BufferedImage overview;	//null until it is next needed
+
+	//PuzzleMinimap Constructor
+	//Precondition: A view and the viewport of the scroll pane it is in
+	//Postcondition: A minimap that follows the view and the viewport
+	public PuzzleMinimap(PuzzleView v, JViewport port)
+	{
+		view = v;
+		viewport = port;
+		setPreferredSize(new Dimension(SIZE, SIZE));
+		view.addPropertyChangeListener(PuzzleView.OVERVIEW_PROPERTY, new PropertyChangeListener()
+		{
+			public void propertyChange(PropertyChangeEvent e)
+			{
+				overview = null;
+				repaint();
+			}
+		});
+		viewport.addChangeListener(new ChangeListener()
+		{
+			public void stateChanged(ChangeEvent e)
+			{
+				repaint();
+			}
+		});
+		MouseAdapter mouse = new MouseAdapter()
+		{
+			public void mousePressed(MouseEvent e)
+			{
+				scrollTo(e.getPoint());
+			}
+
+			public void mouseDragged(MouseEvent e)
+			{
+				scrollTo(e.getPoint());
+			}
+		};
+		addMouseListener(mouse);
+		addMouseMotionListener(mouse);
+	}
+
+	//Precondition: The graphics to paint with
+	//Postcondition: Draws the overview and the rectangle around the visible part of the view
+	protected void paintComponent(Graphics g)
+	{
+		g.setColor(Color.LIGHT_GRAY);
+		g.fillRect(0, 0, getWidth(), getHeight());
+		Rectangle area = getOverviewArea();
+		if (area == null)
+		{
+			return;
+		}
+		g.drawImage(overview, area.x, area.y, area.width, area.height, null);
+
+		//the part of the view that is visible, scaled from the view's size to the overview's
+		Rectangle visible = viewport.getViewRect();
+		double scaleX = (double) area.width / Math.max(1, view.getWidth());
+		double scaleY = (double) area.height / Math.max(1, view.getHeight());
+		g.setColor(Color.BLUE);
+		g.drawRect(area.x + (int) (visible.x * scaleX), area.y + (int) (visible.y * scaleY),
+				Math.max(2, (int) (visible.width * scaleX) - 1), Math.max(2, (int) (visible.height * scaleY) - 1));
+	}
+
+	//Precondition: None
+	//Postcondition: Returns where the overview is drawn, as large as fits without changing its shape, or null if there
+	//				 is no puzzle. The overview is made again first if the puzzle or the path has changed.
+	private Rectangle getOverviewArea()
+	{
+		if (overview == null)
+		{
+			overview = view.getOverview(SIZE);
+			if (overview == null)
+			{
+				return null;
+			}
+		}
+		double scale = Math.min((double) getWidth() / overview.getWidth(), (double) getHeight() / overview.getHeight());
+		int width = Math.max(1, (int) (overview.getWidth() * scale));
+		int height = Math.max(1, (int) (overview.getHeight() * scale));
+		return new Rectangle((getWidth() - width) / 2, (getHeight() - height) / 2, width, height);
+	}
+
+	//Precondition: A point in the minimap
+	//Postcondition: Scrolls the view so the part of the puzzle under the point is in the middle of the viewport
+	private void scrollTo(Point p)
+	{
+		Rectangle area = getOverviewArea();
+		if (area == null)
+		{
+			return;
+		}
+		Dimension extent = viewport.getExtentSize();
+		int x = (int) ((p.x - area.x) * (double) view.getWidth() / area.width) - extent.width / 2;
+		int y = (int) ((p.y - area.y) * (double) view.getHeight() / area.height) - extent.height / 2;
+		x = Math.max(0, Math.min(x, view.getWidth() - extent.width));
+		y = Math.max(0, Math.min(y, view.getHeight() - extent.height));
+		viewport.setViewPosition(new Point(x, y));
+	}
+}
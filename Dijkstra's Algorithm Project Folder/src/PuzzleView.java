@@ -0,0 +1,813 @@
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Toolkit;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import javax.swing.ImageIcon;
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+public class PuzzleView extends JComponent implements Scrollable
+{
+	/* This class draws a puzzle as a single component, meant to sit in a JScrollPane. Nothing is kept for the puzzle
+	 * as a whole: every paint works out which cells fall inside the area being painted and draws only those, so the
+	 * cost of painting depends on the size of the window rather than the size of the maze.
+	 *
+	 * The zoom is a power of two. From 2^MAX_ZOOM down to TILE_MIN_SIZE pixels a cell, each cell is drawn with its
+	 * icon, scaled once into a tile for each kind of cell (wall, start, finish, path, floor of every cost). Smaller
+	 * cells are drawn as flat colours, the average colour of their tile, written straight into an image of the
+	 * painted area. Below one pixel a cell the view switches to a coarser level of detail, where each pixel stands
+	 * for a 2^l by 2^l block of cells: its colour is the share of walls in the block, and it is drawn as path,
+	 * start, finish or searched floor if the block holds any. Those levels are worked out once when the puzzle is
+	 * set, and for the path when it changes, so zooming out never reads more cells than it draws pixels.
+	 *
+	 * While a search is animated, showEvents tints the floor it has resolved and the floor on its frontier. Those
+	 * tints are cleared when the path is shown at the end of the solve.
+	 *
+	 * Ctrl + the mouse wheel zooms around the pointer and dragging pans. Each change of puzzle or path fires the
+	 * OVERVIEW_PROPERTY property change, so a PuzzleMinimap can redraw.
+	 */
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int CELL_SIZE = 30; //the size of the icons
+	public static final int MIN_ZOOM = -10; //a pixel for every 1024 by 1024 block of cells
+	public static final int MAX_ZOOM = 5; //32 pixels a cell
+	public static final int TILE_MIN_SIZE = 8; //cells narrower than this are drawn as flat colours
+	public static final String OVERVIEW_PROPERTY = "overview";
+
+	//The kinds of cell, each with its own tile. Floor that costs more than VERTEX_DIST is COST + its cost.
+	private static final int EMPTY = 0;
+	private static final int WALL = 1;
+	private static final int START = 2;
+	private static final int FINISH = 3;
+	private static final int PATH = 4;
+	private static final int COST = 5;
+	private static final int RESOLVED = COST + 10;	//floor an animated search has resolved
+	private static final int REACHED = COST + 11;	//floor on an animated search's frontier
+	private static final String[] ICON_FILES = {"empty.png", "wall.png", "start.png", "finish.png", "path.png"};
+	private static final Color[] ICON_COLORS = {Color.WHITE, Color.DARK_GRAY, Color.GREEN, Color.RED, Color.YELLOW};
+	private static final Color[] SEARCH_COLORS = {new Color(70, 130, 230, 110), new Color(240, 150, 40, 150)};
+	private static final Color COST_COLOR = new Color(150, 100, 50); //flat colour of the most expensive floor
+	private static Image[] icons; //loaded on first use, null for icons that could not be read
+
+	private PuzzleLayout puzzle;
+	private int zoom = MAX_ZOOM;
+	private BitSet path = new BitSet();
+	private byte[][] wallLevels;		//wallLevels[l] holds the share of walls in each 2^l block, 0 to 255 (l >= 1)
+	private BitSet[] pathLevels;		//pathLevels[l] has a bit for each 2^l block the path crosses, level 0 is path
+	private BitSet[] resolvedLevels;	//the same for the cells an animated search has resolved, or null
+	private BitSet[] reachedLevels;		//and for the cells it has added to the frontier, or null
+	private int shownStart = -1, shownFinish = -1;
+	private BufferedImage[] tiles = new BufferedImage[REACHED + 1];	//at the current cell size
+	private int[] colors;				//the flat colour of each kind of cell
+	private BufferedImage buffer;		//pixels of the area being painted while cells are drawn as flat colours
+	private Point dragStart;			//where the mouse was pressed, in screen coordinates, while panning
+
+	//PuzzleView Constructor
+	//Creates an empty view the size of a 10 by 10 puzzle
+	public PuzzleView()
+	{
+		setPreferredSize(new Dimension(10 * CELL_SIZE, 10 * CELL_SIZE));
+		setOpaque(true);
+		MouseAdapter mouse = new MouseAdapter()
+		{
+			public void mouseWheelMoved(MouseWheelEvent e)
+			{
+				if (e.isControlDown())
+				{
+					setZoom(zoom - e.getWheelRotation(), e.getPoint());
+				}
+				else if (getParent() != null)
+				{
+					//passes plain scrolling on to the scroll pane
+					getParent().dispatchEvent(SwingUtilities.convertMouseEvent(PuzzleView.this, e, getParent()));
+				}
+			}
+
+			public void mousePressed(MouseEvent e)
+			{
+				dragStart = e.getLocationOnScreen();
+			}
+
+			public void mouseDragged(MouseEvent e)
+			{
+				JViewport viewport = getViewport();
+				if (viewport != null && dragStart != null)
+				{
+					Point now = e.getLocationOnScreen();
+					Point position = viewport.getViewPosition();
+					position.translate(dragStart.x - now.x, dragStart.y - now.y);
+					setViewPosition(viewport, position);
+					dragStart = now;
+				}
+			}
+		};
+		addMouseListener(mouse);
+		addMouseMotionListener(mouse);
+		addMouseWheelListener(mouse);
+	}
+
+	//Precondition: A puzzle
+	//Postcondition: The view shows the puzzle without a path, zoomed so that it fits on most of the screen
+	public void setPuzzle(PuzzleLayout p)
+	{
+		puzzle = p;
+		path = new BitSet();
+		resolvedLevels = null;
+		reachedLevels = null;
+		shownStart = p.getStartIndex();
+		shownFinish = p.getFinishIndex();
+		buildWallLevels();
+		pathLevels = buildLevels(path);
+		Dimension screen = getScreenSize();
+		zoom = getFitZoom(screen.width * 3 / 4, screen.height * 3 / 4);
+		tiles = new BufferedImage[tiles.length];
+		setPreferredSize(getPuzzleSize());
+		revalidate();
+		repaint();
+		firePropertyChange(OVERVIEW_PROPERTY, null, p);
+	}
+
+	//Precondition: None
+	//Postcondition: Returns the puzzle being shown, or null if there is none
+	public PuzzleLayout getPuzzle()
+	{
+		return puzzle;
+	}
+
+	//Precondition: A bitset of the cell indexes on the path to show (see Grid.getPathCells), or null for no path
+	//Postcondition: The path is drawn in place of the previous one and any animated search is cleared. Only the area
+	//				 the two paths cover is repainted, unless a search has to be cleared too.
+	public void setPath(BitSet p)
+	{
+		if (puzzle == null)
+		{
+			return;
+		}
+		BitSet changed = (BitSet) path.clone();
+		path = p == null ? new BitSet() : p;
+		changed.or(path);
+		pathLevels = buildLevels(path);
+		if (resolvedLevels != null)
+		{
+			resolvedLevels = null;
+			reachedLevels = null;
+			repaint();
+		}
+		else if (!changed.isEmpty())
+		{
+			repaintCells(changed);
+		}
+		firePropertyChange(OVERVIEW_PROPERTY, null, path);
+	}
+
+	//Precondition: A puzzle is being shown
+	//Postcondition: Repaints the old and new start and finish if they have moved, as after Grid.setStart
+	public void update()
+	{
+		if (puzzle == null)
+		{
+			return;
+		}
+		BitSet changed = new BitSet();
+		for (int cell: new int[] {shownStart, shownFinish, puzzle.getStartIndex(), puzzle.getFinishIndex()})
+		{
+			if (cell != -1)
+			{
+				changed.set(cell);
+			}
+		}
+		shownStart = puzzle.getStartIndex();
+		shownFinish = puzzle.getFinishIndex();
+		repaintCells(changed);
+		firePropertyChange(OVERVIEW_PROPERTY, null, puzzle);
+	}
+
+	//Precondition: A batch of events drained from a SearchEventRing filled by a solve of the puzzle being shown, and
+	//				 how many of them to use
+	//Postcondition: Marks the cells the events name as resolved or reached and repaints the area they cover
+	public void showEvents(int[] batch, int count)
+	{
+		if (puzzle == null || count == 0)
+		{
+			return;
+		}
+		if (resolvedLevels == null)
+		{
+			resolvedLevels = buildLevels(new BitSet());
+			reachedLevels = buildLevels(new BitSet());
+		}
+		int width = puzzle.getWidth();
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = -1, maxY = -1;
+		for (int i = 0; i < count; i++)
+		{
+			int cell = SearchEventRing.getCell(batch[i]);
+			BitSet[] levels = SearchEventRing.getKind(batch[i]) == SearchEventRing.RESOLVED ? resolvedLevels : reachedLevels;
+			int x = cell % width;
+			int y = cell / width;
+			for (int l = 0; l < levels.length; l++)
+			{
+				levels[l].set((y >> l) * getLevelWidth(l) + (x >> l));
+			}
+			minX = Math.min(minX, x);
+			maxX = Math.max(maxX, x);
+			minY = Math.min(minY, y);
+			maxY = Math.max(maxY, y);
+		}
+		repaint(getCellArea(minX, minY, maxX, maxY));
+	}
+
+	//Precondition: None
+	//Postcondition: Returns the zoom: cells are 2^zoom pixels wide, so below 0 a pixel covers 2^-zoom cells each way
+	public int getZoom()
+	{
+		return zoom;
+	}
+
+	//Precondition: A zoom and the point of the view, in its own coordinates, that should stay where it is
+	//Postcondition: Zooms to the closest zoom between MIN_ZOOM and MAX_ZOOM, scrolling the enclosing viewport so
+	//				 the cell under the point stays under the pointer
+	public void setZoom(int z, Point anchor)
+	{
+		z = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, z));
+		if (z == zoom || puzzle == null)
+		{
+			return;
+		}
+		JViewport viewport = getViewport();
+		Point position = viewport == null ? new Point() : viewport.getViewPosition();
+		double scale = Math.scalb(1.0, z - zoom);
+		zoom = z;
+		tiles = new BufferedImage[tiles.length];
+		setPreferredSize(getPuzzleSize());
+		setSize(getPreferredSize());
+		if (viewport != null)
+		{
+			setViewPosition(viewport, new Point((int) (anchor.x * scale) - (anchor.x - position.x),
+					(int) (anchor.y * scale) - (anchor.y - position.y)));
+		}
+		revalidate();
+		repaint();
+	}
+
+	//Precondition: None
+	//Postcondition: Zooms in one step around the middle of what is visible
+	public void zoomIn()
+	{
+		setZoom(zoom + 1, getVisibleCenter());
+	}
+
+	//Precondition: None
+	//Postcondition: Zooms out one step around the middle of what is visible
+	public void zoomOut()
+	{
+		setZoom(zoom - 1, getVisibleCenter());
+	}
+
+	//Precondition: None
+	//Postcondition: Zooms so the whole puzzle fits in the viewport
+	public void zoomToFit()
+	{
+		if (puzzle != null)
+		{
+			JViewport viewport = getViewport();
+			Dimension area = viewport == null ? getVisibleRect().getSize() : viewport.getExtentSize();
+			setZoom(getFitZoom(area.width, area.height), getVisibleCenter());
+		}
+	}
+
+	//Precondition: The largest width and height the puzzle may take up in pixels
+	//Postcondition: Returns the largest zoom, at most MAX_ZOOM, that fits the puzzle in them
+	private int getFitZoom(int width, int height)
+	{
+		int z = MAX_ZOOM;
+		while (z > MIN_ZOOM && (getPixels(puzzle.getWidth(), z) > width || getPixels(puzzle.getHeight(), z) > height))
+		{
+			z--;
+		}
+		return z;
+	}
+
+	//Precondition: None
+	//Postcondition: Returns the size of the screen, or of a small one when there is no screen to show the view on
+	private static Dimension getScreenSize()
+	{
+		if (GraphicsEnvironment.isHeadless())
+		{
+			return new Dimension(1024, 768);
+		}
+		return Toolkit.getDefaultToolkit().getScreenSize();
+	}
+
+	//Precondition: A number of cells and a zoom
+	//Postcondition: Returns how many pixels that many cells take up at the zoom
+	private static int getPixels(int cells, int z)
+	{
+		return z >= 0 ? cells << z : ((cells - 1) >> -z) + 1;
+	}
+
+	//Precondition: A puzzle is being shown
+	//Postcondition: Returns the size in pixels of the whole puzzle at the current zoom
+	private Dimension getPuzzleSize()
+	{
+		return new Dimension(getPixels(puzzle.getWidth(), zoom), getPixels(puzzle.getHeight(), zoom));
+	}
+
+	//Precondition: None
+	//Postcondition: Returns the middle of the visible part of the view
+	private Point getVisibleCenter()
+	{
+		Rectangle visible = getVisibleRect();
+		return new Point(visible.x + visible.width / 2, visible.y + visible.height / 2);
+	}
+
+	//Precondition: None
+	//Postcondition: Returns the viewport the view scrolls in, or null if it is not in one
+	private JViewport getViewport()
+	{
+		return getParent() instanceof JViewport ? (JViewport) getParent() : null;
+	}
+
+	//Precondition: The viewport the view is in and a position to scroll to
+	//Postcondition: Scrolls as close to the position as the size of the view allows
+	private void setViewPosition(JViewport viewport, Point position)
+	{
+		Dimension extent = viewport.getExtentSize();
+		position.x = Math.max(0, Math.min(position.x, getWidth() - extent.width));
+		position.y = Math.max(0, Math.min(position.y, getHeight() - extent.height));
+		viewport.setViewPosition(position);
+	}
+
+	//Precondition: A level of detail
+	//Postcondition: Returns how many blocks of 2^level cells wide a row of the puzzle is split into
+	private int getLevelWidth(int level)
+	{
+		return ((puzzle.getWidth() - 1) >> level) + 1;
+	}
+
+	//Precondition: A level of detail
+	//Postcondition: Returns how many blocks of 2^level cells high a column of the puzzle is split into
+	private int getLevelHeight(int level)
+	{
+		return ((puzzle.getHeight() - 1) >> level) + 1;
+	}
+
+	//Precondition: A puzzle has been set
+	//Postcondition: Works out the share of walls in every block of every level of detail. Level 1 is read from the
+	//				 cells and each level after that is the average of the four blocks below it.
+	private void buildWallLevels()
+	{
+		int width = puzzle.getWidth();
+		int height = puzzle.getHeight();
+		wallLevels = new byte[-MIN_ZOOM + 1][];
+		int levelWidth = getLevelWidth(1);
+		byte[] level = new byte[levelWidth * getLevelHeight(1)];
+		int[] walls = new int[levelWidth];
+		for (int y = 0; y < height; y += 2)
+		{
+			Arrays.fill(walls, 0);
+			for (int row = y; row < y + 2 && row < height; row++)
+			{
+				for (int x = 0; x < width; x++)
+				{
+					if (puzzle.getSymbol(x, row) == 'X')
+					{
+						walls[x >> 1]++;
+					}
+				}
+			}
+			int rows = Math.min(2, height - y);
+			for (int block = 0; block < levelWidth; block++)
+			{
+				int cells = rows * Math.min(2, width - block * 2);
+				level[(y >> 1) * levelWidth + block] = (byte) (walls[block] * 255 / cells);
+			}
+		}
+		wallLevels[1] = level;
+
+		for (int l = 2; l < wallLevels.length; l++)
+		{
+			byte[] below = wallLevels[l - 1];
+			int belowWidth = getLevelWidth(l - 1);
+			int belowHeight = getLevelHeight(l - 1);
+			levelWidth = getLevelWidth(l);
+			level = new byte[levelWidth * getLevelHeight(l)];
+			for (int by = 0; by < getLevelHeight(l); by++)
+			{
+				for (int bx = 0; bx < levelWidth; bx++)
+				{
+					int sum = 0, count = 0;
+					for (int y = by * 2; y < by * 2 + 2 && y < belowHeight; y++)
+					{
+						for (int x = bx * 2; x < bx * 2 + 2 && x < belowWidth; x++)
+						{
+							sum += below[y * belowWidth + x] & 0xff;
+							count++;
+						}
+					}
+					level[by * levelWidth + bx] = (byte) (sum / count);
+				}
+			}
+			wallLevels[l] = level;
+		}
+	}
+
+	//Precondition: A bitset of cell indexes
+	//Postcondition: Returns the bitset as level 0 followed by, for every coarser level of detail, a bitset of the
+	//				 blocks that hold any of its cells
+	private BitSet[] buildLevels(BitSet cells)
+	{
+		BitSet[] levels = new BitSet[-MIN_ZOOM + 1];
+		levels[0] = cells;
+		for (int l = 1; l < levels.length; l++)
+		{
+			levels[l] = new BitSet();
+		}
+		int width = puzzle.getWidth();
+		for (int cell = cells.nextSetBit(0); cell >= 0; cell = cells.nextSetBit(cell + 1))
+		{
+			int x = cell % width;
+			int y = cell / width;
+			for (int l = 1; l < levels.length; l++)
+			{
+				levels[l].set((y >> l) * getLevelWidth(l) + (x >> l));
+			}
+		}
+		return levels;
+	}
+
+	//Precondition: A bitset of cell indexes
+	//Postcondition: Repaints the smallest rectangle around the cells, if there are any
+	private void repaintCells(BitSet cells)
+	{
+		int width = puzzle.getWidth();
+		int minX = Integer.MAX_VALUE, maxX = -1;
+		for (int cell = cells.nextSetBit(0); cell >= 0; cell = cells.nextSetBit(cell + 1))
+		{
+			minX = Math.min(minX, cell % width);
+			maxX = Math.max(maxX, cell % width);
+		}
+		if (maxX != -1)
+		{
+			repaint(getCellArea(minX, cells.nextSetBit(0) / width, maxX, (cells.length() - 1) / width));
+		}
+	}
+
+	//Precondition: The corners of a rectangle of cells
+	//Postcondition: Returns the area of the view the cells are drawn in at the current zoom
+	private Rectangle getCellArea(int minX, int minY, int maxX, int maxY)
+	{
+		if (zoom >= 0)
+		{
+			return new Rectangle(minX << zoom, minY << zoom, (maxX - minX + 1) << zoom, (maxY - minY + 1) << zoom);
+		}
+		int l = -zoom;
+		return new Rectangle(minX >> l, minY >> l, (maxX >> l) - (minX >> l) + 1, (maxY >> l) - (minY >> l) + 1);
+	}
+
+	//Precondition: The coordinates of a cell of the puzzle being shown
+	//Postcondition: Returns the kind of cell it is drawn as
+	private int getKind(int x, int y)
+	{
+		char c = puzzle.getSymbol(x, y);
+		int cell = y * puzzle.getWidth() + x;
+		if (c == 'X')
+		{
+			return WALL;
+		}
+		else if (c == 'S')
+		{
+			return START;
+		}
+		else if (c == 'F')
+		{
+			return FINISH;
+		}
+		else if (path.get(cell))
+		{
+			return PATH;
+		}
+		else if (resolvedLevels != null && resolvedLevels[0].get(cell))
+		{
+			return RESOLVED;
+		}
+		else if (reachedLevels != null && reachedLevels[0].get(cell))
+		{
+			return REACHED;
+		}
+		else if (c >= '2' && c <= '9')
+		{
+			return COST + c - '0';
+		}
+		return EMPTY;
+	}
+
+	//Precondition: A level of detail of at least 1 and the coordinates of one of its blocks
+	//Postcondition: Returns the colour of the pixel that stands for the block
+	private int getBlockColor(int level, int bx, int by)
+	{
+		int[] color = getColors();
+		int block = by * getLevelWidth(level) + bx;
+		int width = puzzle.getWidth();
+		if (shownStart != -1 && (shownStart % width) >> level == bx && (shownStart / width) >> level == by)
+		{
+			return color[START];
+		}
+		else if (shownFinish != -1 && (shownFinish % width) >> level == bx && (shownFinish / width) >> level == by)
+		{
+			return color[FINISH];
+		}
+		else if (pathLevels[level].get(block))
+		{
+			return color[PATH];
+		}
+		int floor = color[EMPTY];
+		if (resolvedLevels != null && resolvedLevels[level].get(block))
+		{
+			floor = color[RESOLVED];
+		}
+		else if (reachedLevels != null && reachedLevels[level].get(block))
+		{
+			floor = color[REACHED];
+		}
+		return blend(floor, color[WALL], wallLevels[level][block] & 0xff);
+	}
+
+	//Precondition: Two RGB colours and how far to go from the first to the second, 0 to 255
+	//Postcondition: Returns the colour that far between them
+	private static int blend(int from, int to, int amount)
+	{
+		int rgb = 0;
+		for (int shift = 0; shift <= 16; shift += 8)
+		{
+			int a = from >> shift & 0xff;
+			int b = to >> shift & 0xff;
+			rgb |= (a + (b - a) * amount / 255) << shift;
+		}
+		return rgb;
+	}
+
+	//Precondition: The graphics to paint with
+	//Postcondition: Draws the cells inside the clip, with icons or flat colours depending on the zoom, and fills the
+	//				 rest of the clip with the background
+	protected void paintComponent(Graphics g)
+	{
+		Rectangle clip = g.getClipBounds();
+		if (clip == null)
+		{
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+		}
+		g.setColor(getBackground() == null ? Color.LIGHT_GRAY : getBackground());
+		g.fillRect(clip.x, clip.y, clip.width, clip.height);
+		if (puzzle == null)
+		{
+			return;
+		}
+		Dimension size = getPuzzleSize();
+		Rectangle area = clip.intersection(new Rectangle(0, 0, size.width, size.height));
+		if (area.isEmpty())
+		{
+			return;
+		}
+		if (zoom >= 0 && 1 << zoom >= TILE_MIN_SIZE)
+		{
+			for (int y = area.y >> zoom; y <= (area.y + area.height - 1) >> zoom; y++)
+			{
+				for (int x = area.x >> zoom; x <= (area.x + area.width - 1) >> zoom; x++)
+				{
+					g.drawImage(getTile(getKind(x, y)), x << zoom, y << zoom, null);
+				}
+			}
+			return;
+		}
+
+		if (buffer == null || buffer.getWidth() < area.width || buffer.getHeight() < area.height)
+		{
+			int width = Math.max(area.width, buffer == null ? 0 : buffer.getWidth());
+			int height = Math.max(area.height, buffer == null ? 0 : buffer.getHeight());
+			buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		}
+		int[] pixels = ((DataBufferInt) buffer.getRaster().getDataBuffer()).getData();
+		int stride = buffer.getWidth();
+		if (zoom >= 0)
+		{
+			//each cell fills a square of pixels, clipped to the area
+			int[] color = getColors();
+			for (int y = area.y >> zoom; y <= (area.y + area.height - 1) >> zoom; y++)
+			{
+				int top = Math.max(y << zoom, area.y);
+				int bottom = Math.min((y + 1) << zoom, area.y + area.height);
+				for (int x = area.x >> zoom; x <= (area.x + area.width - 1) >> zoom; x++)
+				{
+					int rgb = color[getKind(x, y)];
+					int left = Math.max(x << zoom, area.x) - area.x;
+					int right = Math.min((x + 1) << zoom, area.x + area.width) - area.x;
+					for (int py = top; py < bottom; py++)
+					{
+						int row = (py - area.y) * stride;
+						for (int px = left; px < right; px++)
+						{
+							pixels[row + px] = rgb;
+						}
+					}
+				}
+			}
+		}
+		else
+		{
+			//each pixel is a block of the level of detail
+			for (int py = 0; py < area.height; py++)
+			{
+				for (int px = 0; px < area.width; px++)
+				{
+					pixels[py * stride + px] = getBlockColor(-zoom, area.x + px, area.y + py);
+				}
+			}
+		}
+		g.drawImage(buffer, area.x, area.y, area.x + area.width, area.y + area.height, 0, 0, area.width, area.height, null);
+	}
+
+	//Precondition: The largest width and height an overview may have
+	//Postcondition: Returns an image of the whole puzzle and its path at the finest level of detail that fits, or null
+	//				 if there is no puzzle
+	public BufferedImage getOverview(int maxSide)
+	{
+		if (puzzle == null)
+		{
+			return null;
+		}
+		int level = 0;
+		while (level < wallLevels.length - 1 && (getLevelWidth(level) > maxSide || getLevelHeight(level) > maxSide))
+		{
+			level++;
+		}
+		BufferedImage overview = new BufferedImage(getLevelWidth(level), getLevelHeight(level), BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < overview.getHeight(); y++)
+		{
+			for (int x = 0; x < overview.getWidth(); x++)
+			{
+				overview.setRGB(x, y, level == 0 ? getColors()[getKind(x, y)] : getBlockColor(level, x, y));
+			}
+		}
+		return overview;
+	}
+
+	//Precondition: A kind of cell
+	//Postcondition: Returns the tile it is drawn with at the current zoom, drawing it the first time it is needed
+	private BufferedImage getTile(int kind)
+	{
+		if (tiles[kind] == null)
+		{
+			tiles[kind] = drawTile(kind, 1 << zoom);
+		}
+		return tiles[kind];
+	}
+
+	//Precondition: A kind of cell and the size of a cell in pixels
+	//Postcondition: Returns a new tile for the kind of cell: its icon, scaled to the cell size, with the cost written
+	//				 over the floor or the search tint laid over it
+	private static BufferedImage drawTile(int kind, int size)
+	{
+		BufferedImage tile = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = tile.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		int icon = kind < COST ? kind : EMPTY;	//floor of any cost and searched floor start from the empty icon
+		Image[] loaded = getIcons();
+		if (loaded[icon] != null)
+		{
+			g.drawImage(loaded[icon], 0, 0, size, size, null);
+		}
+		else
+		{
+			g.setColor(ICON_COLORS[icon]);
+			g.fillRect(0, 0, size, size);
+		}
+		if (kind >= RESOLVED)
+		{
+			g.setColor(SEARCH_COLORS[kind - RESOLVED]);
+			g.fillRect(0, 0, size, size);
+		}
+		else if (kind >= COST && size >= 8)
+		{
+			//the cost is written over the floor, as the buttons used to show it
+			String text = String.valueOf(kind - COST);
+			g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, size * 2 / 3));
+			g.setColor(Color.BLACK);
+			FontMetrics metrics = g.getFontMetrics();
+			g.drawString(text, (size - metrics.stringWidth(text)) / 2, (size - metrics.getHeight()) / 2 + metrics.getAscent());
+		}
+		g.dispose();
+		return tile;
+	}
+
+	//Precondition: None
+	//Postcondition: Returns the flat colour of every kind of cell: the average colour of its full-size tile, except
+	//				 for floor with a cost, which gets darker the more it costs
+	private int[] getColors()
+	{
+		if (colors == null)
+		{
+			colors = new int[tiles.length];
+			for (int kind = 0; kind < colors.length; kind++)
+			{
+				if (kind >= COST && kind < RESOLVED)
+				{
+					colors[kind] = blend(colors[EMPTY], COST_COLOR.getRGB(), (kind - COST) * 255 / 9);
+					continue;
+				}
+				BufferedImage tile = drawTile(kind, CELL_SIZE);
+				long[] sum = new long[3];
+				for (int y = 0; y < CELL_SIZE; y++)
+				{
+					for (int x = 0; x < CELL_SIZE; x++)
+					{
+						int rgb = tile.getRGB(x, y);
+						sum[0] += rgb >> 16 & 0xff;
+						sum[1] += rgb >> 8 & 0xff;
+						sum[2] += rgb & 0xff;
+					}
+				}
+				int cells = CELL_SIZE * CELL_SIZE;
+				colors[kind] = (int) (sum[0] / cells) << 16 | (int) (sum[1] / cells) << 8 | (int) (sum[2] / cells);
+			}
+		}
+		return colors;
+	}
+
+	//Precondition: None
+	//Postcondition: Returns the cell icons, reading them from the working folder the first time they are needed
+	private static synchronized Image[] getIcons()
+	{
+		if (icons == null)
+		{
+			icons = new Image[ICON_FILES.length];
+			for (int i = 0; i < ICON_FILES.length; i++)
+			{
+				ImageIcon icon = new ImageIcon(ICON_FILES[i]);
+				if (icon.getIconWidth() > 0)
+				{
+					icons[i] = icon.getImage();
+				}
+			}
+		}
+		return icons;
+	}
+
+	//Precondition: None
+	//Postcondition: Returns the size the scroll pane should start at: the whole puzzle, but no more than most of the screen
+	public Dimension getPreferredScrollableViewportSize()
+	{
+		Dimension screen = getScreenSize();
+		Dimension size = getPreferredSize();
+		return new Dimension(Math.min(size.width, screen.width * 3 / 4), Math.min(size.height, screen.height * 3 / 4));
+	}
+
+	//Precondition: The visible area, the direction of the scroll bar and which way it is moving
+	//Postcondition: Returns how far one click of a scroll bar arrow scrolls: a cell, but at least 16 pixels
+	public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction)
+	{
+		return Math.max(16, zoom >= 0 ? 1 << zoom : 1);
+	}
+
+	//Precondition: The visible area, the direction of the scroll bar and which way it is moving
+	//Postcondition: Returns how far a click in a scroll bar's track scrolls: nearly the whole visible area
+	public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction)
+	{
+		int extent = orientation == SwingConstants.HORIZONTAL ? visible.width : visible.height;
+		return Math.max(16, extent - 16);
+	}
+
+	//Precondition: None
+	//Postcondition: Returns false, the view keeps its own width and scrolls when it is wider than the viewport
+	public boolean getScrollableTracksViewportWidth()
+	{
+		return false;
+	}
+
+	//Precondition: None
+	//Postcondition: Returns false, the view keeps its own height and scrolls when it is taller than the viewport
+	public boolean getScrollableTracksViewportHeight()
+	{
+		return false;
+	}
+}
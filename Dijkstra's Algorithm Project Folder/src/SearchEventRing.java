@@ -0,0 +1,106 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SearchEventRing
+{
+	/* This class carries search events from the thread solving a grid to the thread drawing it, without locks. Each
+	 * event is a cell index and whether the cell was resolved or added to the frontier, packed into one int: the kind
+	 * in the top bit and the cell in the other 31, which hold every index a Grid or FlatGrid can have. The
+	 * solving thread is the only one that adds, and the drawing thread the only one that drains, so each end keeps
+	 * its own position and publishes it to the other with an ordered write: an event is never read before it has
+	 * been written, and neither side ever waits for the other. The solving thread only publishes its position every
+	 * PUBLISH_INTERVAL events, and when flush is called at the end of the solve.
+	 *
+	 * The search must not slow down when the drawing falls behind, so when the ring is full new events are dropped
+	 * and counted instead. The final result of the solve is drawn from the path, not from the events, so a dropped
+	 * event only means a cell is missing from the animation.
+	 */
+
+	public static final int RESOLVED = 0;
+	public static final int FRONTIER = 1;
+	public static final int PUBLISH_INTERVAL = 256; //a power of two
+
+	private int[] events;				//kind << 31 | cell
+	private int mask;
+	private AtomicLong head = new AtomicLong();	//next event to drain, written by the drawing thread
+	private AtomicLong tail = new AtomicLong();	//next free slot, written by the solving thread
+	private long writeIndex;				//the solving thread's own copy of tail
+	private long headLimit;				//the head last read by the solving thread, plus the capacity
+	private AtomicLong dropped = new AtomicLong();
+
+	//SearchEventRing Constructor
+	//Precondition: The number of events the ring can hold, a power of two
+	//Postcondition: An empty ring
+	public SearchEventRing(int capacity)
+	{
+		if (capacity <= 0 || (capacity & (capacity - 1)) != 0)
+		{
+			throw new IllegalArgumentException("The capacity must be a power of two, not " + capacity);
+		}
+		events = new int[capacity];
+		mask = capacity - 1;
+		headLimit = capacity;
+	}
+
+	//Precondition: Called by the solving thread with the index of a cell (never negative) and RESOLVED or FRONTIER
+	//Postcondition: The event is added, or counted as dropped if the ring is full
+	public void add(int cell, int kind)
+	{
+		if (writeIndex == headLimit)
+		{
+			//only reads the drawing thread's position when the old one says the ring is full
+			headLimit = head.get() + events.length;
+			if (writeIndex == headLimit)
+			{
+				dropped.lazySet(dropped.get() + 1);
+				return;
+			}
+		}
+		events[(int) writeIndex & mask] = kind << 31 | cell;
+		if ((++writeIndex & (PUBLISH_INTERVAL - 1)) == 0)
+		{
+			tail.lazySet(writeIndex);
+		}
+	}
+
+	//Precondition: Called by the solving thread
+	//Postcondition: Every event added so far can be drained
+	public void flush()
+	{
+		tail.lazySet(writeIndex);
+	}
+
+	//Precondition: Called by the drawing thread with an array to drain into
+	//Postcondition: Moves up to buffer.length of the oldest events into the buffer and returns how many were moved
+	public int drain(int[] buffer)
+	{
+		long from = head.get();
+		int count = (int) Math.min(buffer.length, tail.get() - from);
+		for (int i = 0; i < count; i++)
+		{
+			buffer[i] = events[(int) (from + i) & mask];
+		}
+		head.lazySet(from + count);
+		return count;
+	}
+
+	//Precondition: None
+	//Postcondition: Returns how many events were dropped because the ring was full
+	public long getDropped()
+	{
+		return dropped.get();
+	}
+
+	//Precondition: An event taken from the ring
+	//Postcondition: Returns the index of its cell
+	public static int getCell(int event)
+	{
+		return event & Integer.MAX_VALUE;
+	}
+
+	//Precondition: An event taken from the ring
+	//Postcondition: Returns RESOLVED or FRONTIER
+	public static int getKind(int event)
+	{
+		return event >>> 31;
+	}
+}
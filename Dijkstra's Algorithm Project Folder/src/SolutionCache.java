@@ -0,0 +1,160 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SolutionCache
+{
+	/* This class remembers solved puzzles so the same question is never solved twice. A question is identified by
+	 * the layout of the walls (Grid.getLayoutHash()), the start and the finish, so it does not matter which Grid
+	 * object asks or whether the puzzle was edited back and forth in between: moving the start or finish or editing
+	 * a wall simply changes the key, and the answers stored for the old puzzle stay correct for that puzzle.
+	 *
+	 * Each answer is stored compactly as the cell indexes of the path (an empty array when there is no path). The
+	 * cache holds at most a given number of bytes and evicts the least recently used answers to stay under it. All
+	 * methods are synchronized, so one cache can be shared by grids solved on different threads.
+	 */
+
+	private static final int[] UNSOLVABLE = new int[0];
+	private static final int ENTRY_BYTES = 96; //rough size of one entry apart from its path: key, map node and array header
+
+	private LinkedHashMap<Key, int[]> entries;
+	private long maxBytes;
+	private long bytes;
+	private long hits, misses, evictions;
+
+	//SolutionCache Constructor
+	//Precondition: The most memory, in bytes, the stored answers may take up
+	//Postcondition: An empty cache
+	public SolutionCache(long maxBytes)
+	{
+		this.maxBytes = maxBytes;
+		entries = new LinkedHashMap<Key, int[]>(16, 0.75f, true);
+	}
+
+	//Precondition: A grid with a start and a finish
+	//Postcondition: Returns the cell indexes of the stored path for the grid's current walls, start and finish (empty
+	//				 if it is known to be unsolvable), or null if the question has not been answered yet
+	public synchronized int[] get(Grid grid)
+	{
+		int[] path = entries.get(new Key(grid));
+		if (path == null)
+		{
+			misses++;
+			return null;
+		}
+		hits++;
+		return path.clone();
+	}
+
+	//Precondition: A grid with a start and a finish and the path found for it, or null if it is unsolvable
+	//Postcondition: Stores the answer for the grid's current walls, start and finish, evicting the least recently
+	//				 used answers until the cache fits in its size again
+	public synchronized void put(Grid grid, int[] path)
+	{
+		int[] stored = path == null ? UNSOLVABLE : path.clone();
+		int[] old = entries.put(new Key(grid), stored);
+		if (old != null)
+		{
+			bytes -= getBytes(old);
+		}
+		bytes += getBytes(stored);
+
+		Iterator<Map.Entry<Key, int[]>> eldest = entries.entrySet().iterator();
+		while (bytes > maxBytes && eldest.hasNext())
+		{
+			bytes -= getBytes(eldest.next().getValue());
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	//Precondition: An initialized cache
+	//Postcondition: Removes every stored answer. The counters are kept.
+	public synchronized void clear()
+	{
+		entries.clear();
+		bytes = 0;
+	}
+
+	//Precondition: An initialized cache
+	//Postcondition: Returns the number of stored answers
+	public synchronized int size()
+	{
+		return entries.size();
+	}
+
+	//Precondition: An initialized cache
+	//Postcondition: Returns the estimated memory taken up by the stored answers, in bytes
+	public synchronized long getBytes()
+	{
+		return bytes;
+	}
+
+	//Precondition: An initialized cache
+	//Postcondition: Returns how many lookups found an answer
+	public synchronized long getHits()
+	{
+		return hits;
+	}
+
+	//Precondition: An initialized cache
+	//Postcondition: Returns how many lookups found nothing
+	public synchronized long getMisses()
+	{
+		return misses;
+	}
+
+	//Precondition: An initialized cache
+	//Postcondition: Returns how many answers were dropped to make room for newer ones
+	public synchronized long getEvictions()
+	{
+		return evictions;
+	}
+
+	//Precondition: An initialized cache
+	//Postcondition: Returns the counters as one line of text
+	public synchronized String toString()
+	{
+		return "cache " + hits + " hits, " + misses + " misses, " + evictions + " evictions, " + entries.size()
+				+ " entries, " + bytes + " bytes";
+	}
+
+	//Precondition: A stored path
+	//Postcondition: Returns the estimated memory its entry takes up, in bytes
+	private static long getBytes(int[] path)
+	{
+		return ENTRY_BYTES + 4L * path.length;
+	}
+
+	private static class Key
+	{
+		/* The question a stored answer belongs to
+		 */
+
+		long layout;
+		int start;
+		int finish;
+
+		Key(Grid grid)
+		{
+			layout = grid.getLayoutHash();
+			start = grid.getStart() == null ? -1 : grid.getStart().getIndex();
+			finish = grid.getFinish() == null ? -1 : grid.getFinish().getIndex();
+		}
+
+		public boolean equals(Object o)
+		{
+			if (!(o instanceof Key))
+			{
+				return false;
+			}
+			Key k = (Key) o;
+			return layout == k.layout && start == k.start && finish == k.finish;
+		}
+
+		public int hashCode()
+		{
+			return (int) (layout ^ (layout >>> 32)) * 31 * 31 + start * 31 + finish;
+		}
+	}
+}
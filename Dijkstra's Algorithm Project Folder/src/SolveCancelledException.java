@@ -0,0 +1,4 @@
+public class SolveCancelledException extends RuntimeException 
+{
+	private static final long serialVersionUID = 1L;
+}
\ No newline at end of file
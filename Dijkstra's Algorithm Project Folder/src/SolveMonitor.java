@@ -0,0 +1,64 @@
+public class SolveMonitor
+{
+	/* This class lets one thread follow and stop a solve running on another. While a grid with a monitor is solved,
+	 * the search reports to it every REPORT_INTERVAL cells it resolves: how many it has resolved so far and the reach
+	 * value of the last one, which is how far from the start the frontier has got. Calling cancel makes the search
+	 * stop at its next report by throwing a SolveCancelledException. It only stops between two cells, so the grid
+	 * is left as it would be after any other solve.
+	 */
+
+	public static final int REPORT_INTERVAL = 1024; //a power of two, so searches can check it with a mask
+
+	private volatile int resolved;
+	private volatile long distance;
+	private volatile boolean cancelled;
+
+	//Precondition: None
+	//Postcondition: Clears the progress and any earlier cancel, ready for the next solve
+	public void reset()
+	{
+		resolved = 0;
+		distance = 0;
+		cancelled = false;
+	}
+
+	//Precondition: None
+	//Postcondition: The solve being followed stops at its next report
+	public void cancel()
+	{
+		cancelled = true;
+	}
+
+	//Precondition: None
+	//Postcondition: Returns whether cancel has been called since the last reset
+	public boolean isCancelled()
+	{
+		return cancelled;
+	}
+
+	//Precondition: None
+	//Postcondition: Returns how many cells the solve had resolved at its last report
+	public int getResolved()
+	{
+		return resolved;
+	}
+
+	//Precondition: None
+	//Postcondition: Returns the reach value of the cell resolved last at the solve's last report
+	public long getDistance()
+	{
+		return distance;
+	}
+
+	//Precondition: Called by a search with the number of cells it has resolved and the reach value of the last one
+	//Postcondition: Records the progress and throws a SolveCancelledException if the search should stop
+	public void report(int resolvedCells, long reach)
+	{
+		resolved = resolvedCells;
+		distance = reach;
+		if (cancelled)
+		{
+			throw new SolveCancelledException();
+		}
+	}
+}
@@ -0,0 +1,48 @@
+public class SolveStats
+{
+	/* This class records how a call to getPath went: which strategy solved the puzzle, how many cells it had to
+	 * resolve (expand) before reaching the finish, and how long it took.
+	 */
+
+	private String strategy;
+	private int expanded;
+	private long nanos;
+
+	//SolveStats Constructor
+	//Precondition: The name of the strategy used, the number of cells it expanded and the solve time in nanoseconds
+	//Postcondition: The statistics are stored
+	public SolveStats(String strategy, int expanded, long nanos)
+	{
+		this.strategy = strategy;
+		this.expanded = expanded;
+		this.nanos = nanos;
+	}
+
+	//Precondition: Initialized statistics
+	//Postcondition: Returns the name of the strategy that solved the puzzle
+	public String getStrategy()
+	{
+		return strategy;
+	}
+
+	//Precondition: Initialized statistics
+	//Postcondition: Returns how many cells were resolved during the solve
+	public int getExpanded()
+	{
+		return expanded;
+	}
+
+	//Precondition: Initialized statistics
+	//Postcondition: Returns how long the solve took in nanoseconds
+	public long getNanos()
+	{
+		return nanos;
+	}
+
+	//Precondition: Initialized statistics
+	//Postcondition: Returns a one line summary of the statistics
+	public String toString()
+	{
+		return String.format("%s expanded %d cells in %.3f ms", strategy, expanded, nanos / 1e6);
+	}
+}
@@ -0,0 +1,690 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.BitSet;
+
+public class TiledGrid
+{
+	/* This class solves puzzles too big for the Java heap. Nothing it keeps per cell is on the heap: the walls stay in
+	 * the puzzle file, which is memory-mapped, and the search state (the direction each reached cell was reached
+	 * from, one byte per cell) lives in a memory-mapped scratch file. Both are cut into square tiles of TILE_SIZE by
+	 * TILE_SIZE cells, stored one after another, so the cells near each other in the maze are near each other on
+	 * disk. The operating system only reads a tile of walls in, and only gives a tile of search state memory, when
+	 * the frontier first reaches it; the rest of the maze costs nothing. The heap only holds the frontier, so GC pauses
+	 * stay short whatever the size of the maze. Every edge has the same length, so the search is breadth-first.
+	 *
+	 * Puzzles are converted to the tiled format with PuzzleConverter. The format is (all numbers little-endian):
+	 *
+	 * 	- bytes 0-3: the characters "TILE"
+	 * 	- bytes 4-7: the format version, TILE_VERSION
+	 * 	- bytes 8-15: width and height as ints
+	 * 	- bytes 16-19: the tile size, TILE_SIZE
+	 * 	- bytes 20-35: x and y of the start, then x and y of the finish, as ints (-1 if missing)
+	 * 	- bytes 36-39: unused, 0
+	 * 	- then ceil(width / TILE_SIZE) * ceil(height / TILE_SIZE) tiles in row-major order, each TILE_SIZE * TILE_SIZE
+	 * 	  bits in row-major order, packed into longs, set for walls. Tiles sticking out past the edge of the maze
+	 * 	  are filled with walls.
+	 *
+	 * Usage: java TiledGrid puzzle.tiles...
+	 * Solves each puzzle and reports the path length, how many tiles were paged in and how much heap was used.
+	 */
+
+	public static final int TILE_VERSION = 1;
+	public static final int TILE_SIZE = 256;
+	private static final int TILE_MAGIC = 'T' | 'I' << 8 | 'L' << 16 | 'E' << 24; //"TILE" read as a little-endian int
+	private static final int TILE_HEADER = 40; //bytes before the first tile
+	private static final int TILE_SHIFT = 8; //log2 of TILE_SIZE
+	private static final int TILE_CELLS = TILE_SIZE * TILE_SIZE;
+	private static final int WALL_WINDOW_TILES = 1 << 15; //tiles of walls mapped at a time, 256MB
+	private static final int STATE_WINDOW_TILES = 1 << 14; //tiles of search state mapped at a time, 1GB
+
+	//the search state of a cell: 0 until it is reached, then 1 more than the direction back to the cell it was reached
+	//from, or START
+	private static final byte START = 5;
+	private static final int[] DX = {1, 0, -1, 0}; //x step of Vertex.EAST, NORTH, WEST and SOUTH
+	private static final int[] DY = {0, -1, 0, 1}; //y step of the same directions
+
+	private RandomAccessFile in;
+	private FileChannel channel;
+	private int width, height;
+	private int tilesAcross, tilesDown;
+	private long start, finish;		//cell indexes (y * width + x) of the start and finish, or -1 if missing
+	private MappedByteBuffer[] walls;	//windows of the puzzle file, mapped the first time a tile in them is needed
+	private RandomAccessFile scratch;	//backs the search state of the current solve
+	private MappedByteBuffer[] state;	//windows of the scratch file, mapped the first time a tile in them is reached
+	private BitSet paged;				//tiles whose search state has been touched by the current solve
+	private int pagedTiles;
+	private long expanded;
+	private long pathLength = -1;
+
+	//Used by open, which fills in the fields from a file
+	private TiledGrid()
+	{
+	}
+
+	//Precondition: A puzzle file in the tiled format
+	//Postcondition: Returns the puzzle with its file open and nothing read past the header. Throws an IOException if
+	//				 the file is not a tiled puzzle of a known version or its length does not match its header.
+	public static TiledGrid open(File file) throws IOException
+	{
+		TiledGrid grid = new TiledGrid();
+		grid.in = new RandomAccessFile(file, "r");
+		try
+		{
+			grid.channel = grid.in.getChannel();
+			if (grid.channel.size() < TILE_HEADER)
+			{
+				throw new IOException(file + " is not a version " + TILE_VERSION + " tiled puzzle");
+			}
+			ByteBuffer header = grid.channel.map(FileChannel.MapMode.READ_ONLY, 0, TILE_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+			if (header.getInt(0) != TILE_MAGIC || header.getInt(4) != TILE_VERSION)
+			{
+				throw new IOException(file + " is not a version " + TILE_VERSION + " tiled puzzle");
+			}
+			grid.width = header.getInt(8);
+			grid.height = header.getInt(12);
+			if (grid.width < 0 || grid.height < 0 || header.getInt(16) != TILE_SIZE)
+			{
+				throw new IOException(file + " has a broken header");
+			}
+			grid.tilesAcross = (grid.width + TILE_SIZE - 1) >>> TILE_SHIFT;
+			grid.tilesDown = (grid.height + TILE_SIZE - 1) >>> TILE_SHIFT;
+			if (grid.channel.size() != TILE_HEADER + (long) grid.getTileCount() * (TILE_CELLS / 8))
+			{
+				throw new IOException(file + " has a broken header");
+			}
+			grid.start = grid.readCell(header, 20);
+			grid.finish = grid.readCell(header, 28);
+			grid.walls = new MappedByteBuffer[(grid.getTileCount() + WALL_WINDOW_TILES - 1) / WALL_WINDOW_TILES];
+			return grid;
+		}
+		catch (IOException e)
+		{
+			grid.in.close();
+			throw e;
+		}
+	}
+
+	//Precondition: The header of a tiled puzzle and where an x, y pair is in it
+	//Postcondition: Returns the cell index of that point, or -1 if it is missing or outside the maze
+	private long readCell(ByteBuffer header, int at)
+	{
+		int x = header.getInt(at);
+		int y = header.getInt(at + 4);
+		if (x < 0 || x >= width || y < 0 || y >= height)
+		{
+			return -1;
+		}
+		return (long) y * width + x;
+	}
+
+	//Precondition: An open puzzle
+	//Postcondition: Closes the puzzle file and drops the search state
+	public void close() throws IOException
+	{
+		closeScratch();
+		in.close();
+	}
+
+	//Precondition: A grid has been opened
+	//Postcondition: The width (horizontal length) of the grid is returned
+	public int getWidth()
+	{
+		return width;
+	}
+
+	//Precondition: A grid has been opened
+	//Postcondition: The length (vertical length) of the grid is returned
+	public int getHeight()
+	{
+		return height;
+	}
+
+	//Precondition: A grid has been opened
+	//Postcondition: Returns the number of tiles the puzzle is cut into
+	public int getTileCount()
+	{
+		return tilesAcross * tilesDown;
+	}
+
+	//Precondition: A grid has been opened
+	//Postcondition: Returns the cell index (y * width + x) of the start, or -1 if there is none
+	public long getStart()
+	{
+		return start;
+	}
+
+	//Precondition: A grid has been opened
+	//Postcondition: Returns the cell index (y * width + x) of the finish, or -1 if there is none
+	public long getFinish()
+	{
+		return finish;
+	}
+
+	//Precondition: A finished solve
+	//Postcondition: Returns how many tiles the search reached, which is how many were paged in
+	public int getPagedTiles()
+	{
+		return pagedTiles;
+	}
+
+	//Precondition: A finished solve
+	//Postcondition: Returns how many cells the search resolved
+	public long getExpanded()
+	{
+		return expanded;
+	}
+
+	//Precondition: The coordinates of a cell
+	//Postcondition: Returns whether the cell is a wall, mapping its part of the puzzle file in if it is not yet
+	public boolean isWall(int x, int y)
+	{
+		int tile = (y >>> TILE_SHIFT) * tilesAcross + (x >>> TILE_SHIFT);
+		int bit = (y & (TILE_SIZE - 1)) << TILE_SHIFT | (x & (TILE_SIZE - 1));
+		MappedByteBuffer window = walls[tile / WALL_WINDOW_TILES];
+		if (window == null)
+		{
+			window = mapWalls(tile / WALL_WINDOW_TILES);
+		}
+		return (window.get((tile % WALL_WINDOW_TILES) * (TILE_CELLS / 8) + (bit >>> 3)) >> (bit & 7) & 1) != 0;
+	}
+
+	//Precondition: The number of a window of the puzzle file
+	//Postcondition: Maps the window in and returns it
+	private MappedByteBuffer mapWalls(int w)
+	{
+		long first = (long) w * WALL_WINDOW_TILES;
+		long tiles = Math.min(WALL_WINDOW_TILES, getTileCount() - first);
+		try
+		{
+			walls[w] = channel.map(FileChannel.MapMode.READ_ONLY, TILE_HEADER + first * (TILE_CELLS / 8), tiles * (TILE_CELLS / 8));
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException("Cannot map the puzzle file", e);
+		}
+		return walls[w];
+	}
+
+	//Precondition: The coordinates of a cell
+	//Postcondition: Returns the cell's search state in the current solve
+	private byte getState(int x, int y)
+	{
+		int tile = (y >>> TILE_SHIFT) * tilesAcross + (x >>> TILE_SHIFT);
+		MappedByteBuffer window = state[tile / STATE_WINDOW_TILES];
+		if (window == null)
+		{
+			//nothing in this window has been reached yet
+			return 0;
+		}
+		return window.get((tile % STATE_WINDOW_TILES) * TILE_CELLS + ((y & (TILE_SIZE - 1)) << TILE_SHIFT | (x & (TILE_SIZE - 1))));
+	}
+
+	//Precondition: The coordinates of a cell and its new search state
+	//Postcondition: Records the state, paging the cell's tile in the first time the search reaches it
+	private void setState(int x, int y, byte s)
+	{
+		int tile = (y >>> TILE_SHIFT) * tilesAcross + (x >>> TILE_SHIFT);
+		if (!paged.get(tile))
+		{
+			paged.set(tile);
+			pagedTiles++;
+		}
+		MappedByteBuffer window = state[tile / STATE_WINDOW_TILES];
+		if (window == null)
+		{
+			long first = (long) (tile / STATE_WINDOW_TILES) * STATE_WINDOW_TILES;
+			long tiles = Math.min(STATE_WINDOW_TILES, getTileCount() - first);
+			try
+			{
+				window = scratch.getChannel().map(FileChannel.MapMode.READ_WRITE, first * TILE_CELLS, tiles * TILE_CELLS);
+			}
+			catch (IOException e)
+			{
+				throw new IllegalStateException("Cannot map the search state", e);
+			}
+			state[tile / STATE_WINDOW_TILES] = window;
+		}
+		window.put((tile % STATE_WINDOW_TILES) * TILE_CELLS + ((y & (TILE_SIZE - 1)) << TILE_SHIFT | (x & (TILE_SIZE - 1))), s);
+	}
+
+	//Precondition: A puzzle with a start and a finish
+	//Postcondition: Solves for the shortest path from the start to the finish breadth-first and returns its length.
+	//				 The search state goes in a new scratch file, which is sparse, so only the tiles the search
+	//				 reaches take up memory or disk. Throws an UnsolvablePuzzleException if there is no path.
+	public long solve() throws IOException
+	{
+		if (start == -1 || finish == -1)
+		{
+			throw new IllegalStateException("The puzzle has no start or finish");
+		}
+		closeScratch();
+		File file = File.createTempFile("tiled", ".state");
+		scratch = new RandomAccessFile(file, "rw");
+		if (!file.delete())
+		{
+			file.deleteOnExit();
+		}
+		scratch.setLength((long) getTileCount() * TILE_CELLS);
+		state = new MappedByteBuffer[(getTileCount() + STATE_WINDOW_TILES - 1) / STATE_WINDOW_TILES];
+		paged = new BitSet(getTileCount());
+		pagedTiles = 0;
+		expanded = 0;
+		pathLength = -1;
+
+		CellQueue frontier = new CellQueue();
+		setState((int) (start % width), (int) (start / width), START);
+		frontier.add(start);
+		while (!frontier.isEmpty())
+		{
+			long current = frontier.poll();
+			expanded++;
+			if (current == finish)
+			{
+				break;
+			}
+			int x = (int) (current % width);
+			int y = (int) (current / width);
+			for (int dir = 0; dir < DX.length; dir++)
+			{
+				int nx = x + DX[dir];
+				int ny = y + DY[dir];
+				if (nx >= 0 && nx < width && ny >= 0 && ny < height && !isWall(nx, ny) && getState(nx, ny) == 0)
+				{
+					setState(nx, ny, (byte) (Vertex.getOppositeDirection(dir) + 1));
+					frontier.add((long) ny * width + nx);
+				}
+			}
+		}
+
+		if (getState((int) (finish % width), (int) (finish / width)) == 0)
+		{
+			throw new UnsolvablePuzzleException();
+		}
+		pathLength = 0;
+		for (long cell = finish; cell != start; cell = getPrevious(cell))
+		{
+			pathLength++;
+		}
+		return pathLength;
+	}
+
+	//Precondition: A cell reached by the current solve other than the start
+	//Postcondition: Returns the cell it was reached from
+	private long getPrevious(long cell)
+	{
+		int x = (int) (cell % width);
+		int y = (int) (cell / width);
+		int back = getState(x, y) - 1;
+		return (long) (y + DY[back]) * width + x + DX[back];
+	}
+
+	//Precondition: A finished solve
+	//Postcondition: Returns the cell indexes (y * width + x) of the path it found, from the start to the finish
+	public long[] getPath()
+	{
+		if (pathLength == -1)
+		{
+			throw new IllegalStateException("The puzzle has not been solved");
+		}
+		if (pathLength >= Integer.MAX_VALUE)
+		{
+			throw new IllegalStateException("The path is too long for an array, " + pathLength + " steps");
+		}
+		long[] path = new long[(int) pathLength + 1];
+		long cell = finish;
+		for (int i = path.length - 1; i >= 0; i--)
+		{
+			path[i] = cell;
+			if (i > 0)
+			{
+				cell = getPrevious(cell);
+			}
+		}
+		return path;
+	}
+
+	//Precondition: None
+	//Postcondition: The scratch file of the last solve, if any, is closed. Its mappings stay valid until they are
+	//				 collected, but nothing refers to them any more.
+	private void closeScratch() throws IOException
+	{
+		if (scratch != null)
+		{
+			scratch.close();
+			scratch = null;
+			state = null;
+		}
+	}
+
+	//Precondition: A puzzle file in the text or the binary format and a file to write to
+	//Postcondition: Writes the puzzle in the tiled format. A text puzzle is read one line at a time and written one
+	//				 band of TILE_SIZE rows at a time, so puzzles far bigger than the heap can be converted. Like
+	//				 FlatGrid.load, every line is trimmed of the whitespace at either end, the first line sets the width,
+	//				 longer lines are cut to it and blank lines at the end of the file are ignored. Throws an IOException
+	//				 for weighted puzzles, whose costs the format cannot store.
+	public static void convert(File input, File output) throws IOException
+	{
+		RandomAccessFile out = new RandomAccessFile(output, "rw");
+		try
+		{
+			FileChannel channel = out.getChannel();
+			channel.truncate(0);
+			if (FlatGrid.isBinary(input))
+			{
+				FlatGrid flat = FlatGrid.load(input);
+				TileWriter writer = new TileWriter(channel, flat.getWidth());
+				for (String row: flat.toStringArray())
+				{
+					writer.addRow(row, 0);
+				}
+				writer.finish();
+				return;
+			}
+
+			BufferedReader reader = new BufferedReader(new FileReader(input), 1 << 16);
+			try
+			{
+				TileWriter writer = null;
+				int blank = 0; //blank lines read but not yet known not to be at the end of the file
+				String line;
+				while ((line = reader.readLine()) != null)
+				{
+					if (writer == null)
+					{
+						if (getLineWidth(line) == 0)
+						{
+							throw new IOException("The first line of " + input + " is empty");
+						}
+						writer = new TileWriter(channel, getLineWidth(line));
+					}
+					if (getLineWidth(line) == 0)
+					{
+						blank++;
+						continue;
+					}
+					for (; blank > 0; blank--)
+					{
+						writer.addRow("", 0);
+					}
+					writer.addRow(line, getLineStart(line));
+				}
+				if (writer == null)
+				{
+					throw new IOException(input + " is empty");
+				}
+				writer.finish();
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+
+	//Precondition: A line of a text puzzle
+	//Postcondition: Returns its length without the whitespace at either end
+	private static int getLineWidth(String line)
+	{
+		int end = line.length();
+		while (end > 0 && isBlank(line.charAt(end - 1)))
+		{
+			end--;
+		}
+		return Math.max(0, end - getLineStart(line));
+	}
+
+	//Precondition: A line of a text puzzle
+	//Postcondition: Returns the column of its first character that is not whitespace, or its length if there is none
+	private static int getLineStart(String line)
+	{
+		int start = 0;
+		while (start < line.length() && isBlank(line.charAt(start)))
+		{
+			start++;
+		}
+		return start;
+	}
+
+	//Precondition: A character of a text puzzle
+	//Postcondition: Returns whether it is whitespace that the readers trim from the ends of a line, the same
+	//				 characters String.trim and FlatGrid.load drop
+	private static boolean isBlank(char c)
+	{
+		return c <= ' ';
+	}
+
+	//Precondition: A file channel and a buffer that has been filled from its start
+	//Postcondition: Writes everything put in the buffer to the channel and empties the buffer
+	private static void write(FileChannel channel, ByteBuffer buffer) throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	public static void main(String[] args)
+	{
+		if (args.length == 0)
+		{
+			System.err.println("Usage: java TiledGrid puzzle.tiles...");
+			System.exit(1);
+		}
+		for (String name: args)
+		{
+			try
+			{
+				TiledGrid grid = open(new File(name));
+				try
+				{
+					long gcBefore = getCollectionMillis();
+					long time = System.nanoTime();
+					String result;
+					try
+					{
+						result = "length " + grid.solve();
+					}
+					catch (UnsolvablePuzzleException e)
+					{
+						result = "unsolvable";
+					}
+					time = System.nanoTime() - time;
+					Runtime runtime = Runtime.getRuntime();
+					System.out.println(name + "\t" + grid.getWidth() + "x" + grid.getHeight() + "\t" + result + "\texpanded "
+							+ grid.getExpanded() + "\t" + grid.getPagedTiles() + " of " + grid.getTileCount()
+							+ " tiles paged in\t" + String.format("%.3f ms", time / 1e6) + "\theap used "
+							+ (runtime.totalMemory() - runtime.freeMemory()) / 1048576 + " MB of " + runtime.maxMemory()
+							/ 1048576 + " MB\tgc " + (getCollectionMillis() - gcBefore) + " ms");
+				}
+				finally
+				{
+					grid.close();
+				}
+			}
+			catch (IOException e)
+			{
+				System.out.println(name + "\terror " + e.getMessage());
+			}
+		}
+	}
+
+	//Precondition: None
+	//Postcondition: Returns the total time spent in garbage collection so far, in milliseconds
+	private static long getCollectionMillis()
+	{
+		long millis = 0;
+		for (GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans())
+		{
+			millis += Math.max(0, gc.getCollectionTime());
+		}
+		return millis;
+	}
+
+	private static class TileWriter
+	{
+		/* Writes a puzzle in the tiled format one row at a time, keeping only the band of TILE_SIZE rows being filled
+		 */
+
+		FileChannel channel;
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+		long[] band;		//the tiles of the band of rows being filled in, one after another
+		int width, height;
+		int startX = -1, startY = -1, finishX = -1, finishY = -1;
+
+		TileWriter(FileChannel channel, int width) throws IOException
+		{
+			this.channel = channel;
+			this.width = width;
+			band = new long[((width + TILE_SIZE - 1) >>> TILE_SHIFT) * (TILE_CELLS / 64)];
+			channel.position(TILE_HEADER);
+		}
+
+		//Precondition: The next row of the puzzle and the column in it where the puzzle starts
+		//Postcondition: The row is added, and the band is written out once it is full
+		void addRow(String row, int from) throws IOException
+		{
+			int y = height & (TILE_SIZE - 1);
+			if (y == 0)
+			{
+				fillBand(0);
+			}
+			for (int x = 0; x < width && from + x < row.length(); x++)
+			{
+				char c = row.charAt(from + x);
+				if (c == 'X')
+				{
+					int bit = y << TILE_SHIFT | (x & (TILE_SIZE - 1));
+					band[(x >>> TILE_SHIFT) * (TILE_CELLS / 64) + (bit >>> 6)] |= 1L << bit;
+				}
+				else if (c == 'S' && startX == -1)
+				{
+					startX = x;
+					startY = height;
+				}
+				else if (c == 'F' && finishX == -1)
+				{
+					finishX = x;
+					finishY = height;
+				}
+				else if (c >= '2' && c <= '9')
+				{
+					throw new IOException("The tiled format cannot store cell costs, keep weighted puzzles as text");
+				}
+			}
+			height++;
+			if ((height & (TILE_SIZE - 1)) == 0)
+			{
+				writeBand();
+			}
+		}
+
+		//Precondition: Every row has been added
+		//Postcondition: Writes the last band, with the rows past the bottom of the maze filled with walls, and the header
+		void finish() throws IOException
+		{
+			if ((height & (TILE_SIZE - 1)) != 0)
+			{
+				fillBand(height & (TILE_SIZE - 1));
+				writeBand();
+			}
+			buffer.putInt(TILE_MAGIC).putInt(TILE_VERSION).putInt(width).putInt(height).putInt(TILE_SIZE)
+					.putInt(startX).putInt(startY).putInt(finishX).putInt(finishY).putInt(0);
+			channel.position(0);
+			write(channel, buffer);
+		}
+
+		//Precondition: 0 for a new band, or the first row of the last band that is past the bottom of the maze
+		//Postcondition: A new band is cleared, apart from the columns past the right edge of the maze, which are walls.
+		//				 Otherwise every row from the given one down is filled with walls.
+		private void fillBand(int fromRow)
+		{
+			for (int tile = 0; tile < band.length / (TILE_CELLS / 64); tile++)
+			{
+				for (int y = fromRow; y < TILE_SIZE; y++)
+				{
+					for (int x = 0; x < TILE_SIZE; x++)
+					{
+						int bit = y << TILE_SHIFT | x;
+						int word = tile * (TILE_CELLS / 64) + (bit >>> 6);
+						if (fromRow > 0 || (tile << TILE_SHIFT) + x >= width)
+						{
+							band[word] |= 1L << bit;
+						}
+						else
+						{
+							band[word] &= ~(1L << bit);
+						}
+					}
+				}
+			}
+		}
+
+		//Precondition: A full band
+		//Postcondition: Writes the band after the ones written so far
+		private void writeBand() throws IOException
+		{
+			for (long word: band)
+			{
+				if (!buffer.hasRemaining())
+				{
+					write(channel, buffer);
+				}
+				buffer.putLong(word);
+			}
+			write(channel, buffer);
+		}
+	}
+
+	private static class CellQueue
+	{
+		/* The breadth-first frontier: a growable ring of cell indexes
+		 */
+
+		long[] cells = new long[1024];
+		int head, size;
+
+		boolean isEmpty()
+		{
+			return size == 0;
+		}
+
+		void add(long cell)
+		{
+			if (size == cells.length)
+			{
+				long[] bigger = new long[size * 2];
+				for (int i = 0; i < size; i++)
+				{
+					bigger[i] = cells[(head + i) % cells.length];
+				}
+				cells = bigger;
+				head = 0;
+			}
+			cells[(head + size) % cells.length] = cell;
+			size++;
+		}
+
+		long poll()
+		{
+			long cell = cells[head];
+			head = (head + 1) % cells.length;
+			size--;
+			return cell;
+		}
+	}
+}
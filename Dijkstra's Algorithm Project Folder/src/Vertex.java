@@ -17,13 +17,20 @@ public class Vertex
 	private boolean isWall; 
 	private int reachValue;
 	private boolean resolved;
+	private int index; //Position of the vertex in its grid, counted row by row from the top left
+	private int previousDirection; //Direction of the vertex this one was reached from while solving, or -1
+	private int generation; //Solve the reach value, resolved flag and previous direction belong to
+	private int cost; //Cost of crossing the vertex, from 1 for open floor up to 9 ('1' to '9' in a puzzle)
 	
 	//Vertex Constructor
-	//Defines the vertex as having 4 adjacent vertices and a default reach value being infinity
-	public Vertex()
+	//Defines the vertex at the given position as having 4 adjacent vertices and a default reach value being infinity
+	public Vertex(int i)
 	{
+		index = i;
 		neighbors = new Edge[4];
 		reachValue = Integer.MAX_VALUE;
+		previousDirection = -1;
+		cost = VERTEX_DIST;
 	}
 	
 	//Precondition: A potential neighboring vertex and the direction in which it will be located in reference to the original vertex
@@ -36,20 +43,23 @@ public class Vertex
 	}
 	
 	//Precondition: The direction in which the neighboring vertex is located
-	//Postcondition: The adjacent vertex is returned
+	//Postcondition: The adjacent vertex is returned, or null if the vertex is on the edge of the grid in that direction
 	public Vertex getNeighbor(int dir)
 	{
-		return neighbors[dir].getOtherLinkedVertex(this);
+		return neighbors[dir] == null ? null : neighbors[dir].getOtherLinkedVertex(this);
 	}
 	
 	//Precondition: A vertex with defined neighbors
-	//Postcondition: All neighboring vertices are returned
+	//Postcondition: All neighboring vertices are returned (vertices on the edge of the grid have fewer than 4)
 	public ArrayList<Vertex> getNeighbors()
 	{
-		ArrayList<Vertex> list = new ArrayList<Vertex>();
+		ArrayList<Vertex> list = new ArrayList<Vertex>(neighbors.length);
 		for (Edge e: neighbors)
 		{
-			list.add(e.getOtherLinkedVertex(this));
+			if (e != null)
+			{
+				list.add(e.getOtherLinkedVertex(this));
+			}
 		}
 		return list;
 	}
@@ -75,6 +85,20 @@ public class Vertex
 		isWall = wall;
 	}
 	
+	//Precondition: A defined vertex
+	//Postcondition: Returns the cost of crossing the vertex
+	public int getCost()
+	{
+		return cost;
+	}
+	
+	//Precondition: A positive cost
+	//Postcondition: Sets the cost of crossing the vertex. The lengths of its edges are not changed.
+	public void setCost(int c)
+	{
+		cost = c;
+	}
+	
 	//Precondition: A defined vertex
 	//Postcondition: The reach value of the vertex is returned
 	public int getReachValue()
@@ -103,9 +127,44 @@ public class Vertex
 		resolved = r;
 	}
 	
+	//Precondition: The number of the solve in progress
+	//Postcondition: If the vertex has not been touched yet in this solve, its reach value goes back to infinity, it is
+	//				 no longer resolved and it has no previous direction. Otherwise nothing changes.
+	public void resetFor(int solve)
+	{
+		if (generation != solve)
+		{
+			generation = solve;
+			reachValue = Integer.MAX_VALUE;
+			resolved = false;
+			previousDirection = -1;
+		}
+	}
+	
+	//Precondition: A defined vertex
+	//Postcondition: Returns the position of the vertex in its grid (y * width + x)
+	public int getIndex()
+	{
+		return index;
+	}
+	
+	//Precondition: A vertex that has been reached while solving
+	//Postcondition: Returns the direction of the neighbor it was reached from on its shortest path, or -1 if none
+	public int getPreviousDirection()
+	{
+		return previousDirection;
+	}
+	
+	//Precondition: One of the 4 directions defined above, or -1
+	//Postcondition: Records the direction of the neighbor this vertex was reached from
+	public void setPreviousDirection(int dir)
+	{
+		previousDirection = dir;
+	}
+	
 	//Precondition: An integer in coordination with one of the 4 directions defined above
 	//Postcondition: Returns an integer value in coordination with the opposite direction of the inputed integer
-	private static int getOppositeDirection(int dir)
+	public static int getOppositeDirection(int dir)
 	{
 		dir -= 2;
 		if (dir < 0)
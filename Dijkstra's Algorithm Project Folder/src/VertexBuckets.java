@@ -0,0 +1,76 @@
+import java.util.Arrays;
+
+public class VertexBuckets implements VertexFrontier
+{
+	/* This class is the frontier for puzzles whose edge lengths are small integers (Dial's algorithm). It keeps one
+	 * bucket per reach value. Every vertex in the frontier is within one edge length of the lowest reach value, so
+	 * only maxDistance + 1 buckets are ever in use and they are reused in a circle. Adding and lowering are O(1),
+	 * and polling only scans ahead over empty buckets, never compares vertices.
+	 */
+
+	private Vertex[][] buckets;	//buckets[d % buckets.length] holds the vertices added with reach value d
+	private int[] sizes;
+	private long current;		//the reach value whose bucket is being emptied
+	private int size;
+
+	//VertexBuckets Constructor
+	//Precondition: The longest edge length in the puzzle (a small non-negative integer)
+	//Postcondition: An empty frontier with a bucket for every reach value within one edge of the lowest
+	public VertexBuckets(int maxDistance)
+	{
+		buckets = new Vertex[maxDistance + 1][4];
+		sizes = new int[maxDistance + 1];
+	}
+
+	//Precondition: An initialized frontier
+	//Postcondition: Returns whether there are no entries left in the frontier
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	//Precondition: A vertex and its new reach value, no more than the longest edge above the lowest one in the frontier
+	//Postcondition: The vertex is added to the bucket for that reach value; any older entry for it becomes stale
+	public void addOrDecrease(Vertex v, long key)
+	{
+		int b = (int) (key % buckets.length);
+		if (sizes[b] == buckets[b].length)
+		{
+			buckets[b] = Arrays.copyOf(buckets[b], sizes[b] * 2);
+		}
+		buckets[b][sizes[b]++] = v;
+		if (size == 0 || key < current)
+		{
+			current = key;
+		}
+		size++;
+	}
+
+	//Precondition: A non-empty frontier
+	//Postcondition: Removes and returns a vertex from the lowest non-empty bucket
+	public Vertex poll()
+	{
+		int b = (int) (current % buckets.length);
+		while (sizes[b] == 0)
+		{
+			current++;
+			b = (int) (current % buckets.length);
+		}
+		Vertex v = buckets[b][--sizes[b]];
+		buckets[b][sizes[b]] = null;
+		size--;
+		return v;
+	}
+
+	//Precondition: An initialized frontier
+	//Postcondition: Empties the frontier
+	public void clear()
+	{
+		for (int b = 0; b < buckets.length; b++)
+		{
+			Arrays.fill(buckets[b], 0, sizes[b], null);
+			sizes[b] = 0;
+		}
+		size = 0;
+	}
+}
@@ -0,0 +1,26 @@
+public interface VertexFrontier
+{
+	/* The set of vertices that have been reached but not yet resolved while solving a Grid. Grid.getPath picks the
+	 * implementation that fits the edge lengths of the puzzle: VertexQueue when every edge has the same length,
+	 * VertexBuckets when they are all small integers, and VertexRadixHeap otherwise and for A*.
+	 *
+	 * poll() may hand back a vertex that has already been resolved (a leftover from before its reach value was
+	 * lowered); callers skip those.
+	 */
+
+	//Precondition: An initialized frontier
+	//Postcondition: Returns whether there are no vertices left in the frontier
+	boolean isEmpty();
+
+	//Precondition: A vertex whose reach value has just been lowered and its new priority
+	//Postcondition: The vertex will come out of the frontier in priority order
+	void addOrDecrease(Vertex v, long key);
+
+	//Precondition: A non-empty frontier
+	//Postcondition: Removes and returns the vertex with the lowest priority
+	Vertex poll();
+
+	//Precondition: An initialized frontier
+	//Postcondition: Empties the frontier
+	void clear();
+}
@@ -0,0 +1,60 @@
+import java.util.Arrays;
+
+public class VertexQueue implements VertexFrontier
+{
+	/* This class is the frontier for puzzles where every edge has the same length. A vertex's reach value is then
+	 * final the first time it is reached, and vertices are reached in order of reach value, so a plain first-in
+	 * first-out queue does the job of a priority queue (a breadth-first search) with no comparisons at all.
+	 */
+
+	private Vertex[] queue; //circular buffer, the next vertex out is at head
+	private int head, size;
+
+	//VertexQueue Constructor
+	//Creates an empty queue with room for a small frontier; it grows as needed
+	public VertexQueue()
+	{
+		queue = new Vertex[16];
+	}
+
+	//Precondition: An initialized queue
+	//Postcondition: Returns whether there are no vertices left in the frontier
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	//Precondition: A vertex reached for the first time (the key is ignored, it is always the largest so far)
+	//Postcondition: The vertex is added to the back of the queue
+	public void addOrDecrease(Vertex v, long key)
+	{
+		if (size == queue.length)
+		{
+			Vertex[] larger = Arrays.copyOf(queue, size * 2);
+			System.arraycopy(queue, 0, larger, size, head);	//unwraps the part that had wrapped around
+			queue = larger;
+		}
+		queue[(head + size) & (queue.length - 1)] = v;
+		size++;
+	}
+
+	//Precondition: A non-empty queue
+	//Postcondition: Removes and returns the vertex at the front of the queue
+	public Vertex poll()
+	{
+		Vertex v = queue[head];
+		queue[head] = null;
+		head = (head + 1) & (queue.length - 1);
+		size--;
+		return v;
+	}
+
+	//Precondition: An initialized queue
+	//Postcondition: Empties the queue
+	public void clear()
+	{
+		Arrays.fill(queue, null);
+		head = 0;
+		size = 0;
+	}
+}
@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+public class VertexRadixHeap implements VertexFrontier
+{
+	/* This class is a monotone radix heap: a frontier for searches that never add a vertex with a lower priority
+	 * than the last one polled, which holds for Dijkstra's algorithm and for A* with a consistent estimate. It never
+	 * compares two entries with each other. Bucket 0 holds the entries equal to the last priority polled, and
+	 * bucket i the ones that first differ from it in bit i - 1, so an entry only ever moves to lower buckets, at most
+	 * 64 times, however long the edges are.
+	 *
+	 * Lowering a priority just adds the vertex again; the old entry becomes stale and Grid.getPath skips it because
+	 * the vertex is already resolved by the time it comes out. Entries with the same priority come out last in,
+	 * first out, so A* goes on with the vertex it reached most recently, which is usually the one closest to the
+	 * finish.
+	 */
+
+	private Vertex[][] vertices;	//vertices[b] holds the vertices in bucket b
+	private long[][] keys;			//keys[b][i] is the priority vertices[b][i] was added with
+	private int[] sizes;
+	private long last;				//the priority polled last, no entry is lower
+	private int size;
+
+	//VertexRadixHeap Constructor
+	//Creates an empty frontier
+	public VertexRadixHeap()
+	{
+		vertices = new Vertex[65][4];
+		keys = new long[65][4];
+		sizes = new int[65];
+	}
+
+	//Precondition: An initialized frontier
+	//Postcondition: Returns whether there are no entries left in the frontier
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	//Precondition: A vertex and its new priority, which must not be lower than the last priority polled
+	//Postcondition: The vertex is added with that priority; any older entry for it becomes stale
+	public void addOrDecrease(Vertex v, long key)
+	{
+		if (key < last)
+		{
+			throw new IllegalArgumentException("Priority " + key + " is lower than the last one polled, " + last);
+		}
+		add(getBucket(key), v, key);
+		size++;
+	}
+
+	//Precondition: A non-empty frontier
+	//Postcondition: Removes and returns a vertex with the lowest priority
+	public Vertex poll()
+	{
+		if (sizes[0] == 0)
+		{
+			//the lowest priority is in the first non-empty bucket; it becomes the new last and the bucket's entries
+			//are spread over the buckets below it
+			int b = 1;
+			while (sizes[b] == 0)
+			{
+				b++;
+			}
+			long lowest = keys[b][0];
+			for (int i = 1; i < sizes[b]; i++)
+			{
+				lowest = Math.min(lowest, keys[b][i]);
+			}
+			last = lowest;
+			int count = sizes[b];
+			sizes[b] = 0;
+			for (int i = 0; i < count; i++)
+			{
+				add(getBucket(keys[b][i]), vertices[b][i], keys[b][i]);
+				vertices[b][i] = null;
+			}
+		}
+		size--;
+		Vertex v = vertices[0][--sizes[0]];
+		vertices[0][sizes[0]] = null;
+		return v;
+	}
+
+	//Precondition: An initialized frontier
+	//Postcondition: Empties the frontier
+	public void clear()
+	{
+		for (int b = 0; b < sizes.length; b++)
+		{
+			Arrays.fill(vertices[b], 0, sizes[b], null);
+			sizes[b] = 0;
+		}
+		size = 0;
+		last = 0;
+	}
+
+	//Precondition: A priority no lower than the last one polled
+	//Postcondition: Returns the bucket it belongs in: 0 if it equals the last priority, otherwise one more than the
+	//				 highest bit in which it differs from it
+	private int getBucket(long key)
+	{
+		return key == last ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+	}
+
+	//Precondition: A bucket, a vertex and its priority
+	//Postcondition: The entry is put at the end of the bucket, which grows if it is full
+	private void add(int b, Vertex v, long key)
+	{
+		if (sizes[b] == vertices[b].length)
+		{
+			vertices[b] = Arrays.copyOf(vertices[b], sizes[b] * 2);
+			keys[b] = Arrays.copyOf(keys[b], sizes[b] * 2);
+		}
+		vertices[b][sizes[b]] = v;
+		keys[b][sizes[b]] = key;
+		sizes[b]++;
+	}
+}
@@ -0,0 +1,47 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class CellValuesTest
+{
+	/* Checks that CellValues reads back what was set and marked in the current generation, and the default given to
+	 * the last clear for everything from before it.
+	 */
+
+	@Test
+	public void setAndMark()
+	{
+		CellValues values = new CellValues(4);
+		values.clear(-1);
+		values.set(1, 7);
+		values.mark(1);
+		values.mark(2);
+		values.set(1, 8);
+		assertEquals(-1, values.get(0));
+		assertEquals(8, values.get(1));
+		assertTrue(values.isMarked(1), "a set keeps the mark");
+		assertEquals(-1, values.get(2), "a cell marked before it was set has the default");
+		assertTrue(values.isMarked(2));
+		assertFalse(values.isMarked(3));
+	}
+
+	@Test
+	public void clearForgetsEverything()
+	{
+		CellValues values = new CellValues(3);
+		for (int solve = 0; solve < 3; solve++)
+		{
+			values.clear(Integer.MAX_VALUE - solve);
+			for (int cell = 0; cell < values.size(); cell++)
+			{
+				assertEquals(Integer.MAX_VALUE - solve, values.get(cell));
+				assertFalse(values.isMarked(cell));
+			}
+			values.set(solve, solve);
+			values.mark(solve);
+			values.set((solve + 1) % values.size(), 100);
+		}
+	}
+}
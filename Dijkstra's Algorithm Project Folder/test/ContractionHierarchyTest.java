@@ -0,0 +1,80 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+
+public class ContractionHierarchyTest
+{
+	/* Checks that a ContractionHierarchy answers with the same distance as Dijkstra's algorithm on the Grid it was
+	 * built from, for many starts on every kind of generated puzzle, and that the path it unpacks from its shortcuts
+	 * runs between the two cells in single steps of that total length.
+	 */
+
+	@Test
+	public void distanceMatchesDijkstra()
+	{
+		for (int kind = 0; kind < MazeGenerator.KIND_NAMES.length; kind++)
+		{
+			Grid grid = new Grid(new Scanner(MazeGenerator.generateText(kind, 41, 29, kind)));
+			ContractionHierarchy h = new ContractionHierarchy(grid);
+			for (int round = 0; round < 8; round++)
+			{
+				String puzzle = MazeGenerator.KIND_NAMES[kind] + ", round " + round;
+				grid.forgetSearches();
+				ArrayList<Vertex> path = grid.getPath(Grid.DIJKSTRA);
+				int start = grid.getStartIndex();
+				int finish = grid.getFinishIndex();
+				assertEquals(grid.getPathCost(path), h.getDistance(start, finish), puzzle);
+
+				int[] cells = h.getPath(start, finish);
+				assertEquals(start, cells[0], puzzle);
+				assertEquals(finish, cells[cells.length - 1], puzzle);
+				ArrayList<Vertex> unpacked = new ArrayList<Vertex>();
+				for (int i = 0; i < cells.length; i++)
+				{
+					if (i > 0)
+					{
+						assertTrue(isStep(grid.getVertex(cells[i - 1]), grid.getVertex(cells[i])),
+								puzzle + ", step " + i);
+					}
+					unpacked.add(grid.getVertex(cells[i]));
+				}
+				assertEquals(grid.getPathCost(path), grid.getPathCost(unpacked), puzzle);
+				moveStart(grid, round);
+			}
+		}
+	}
+
+	//Precondition: Two vertices
+	//Postcondition: Returns whether an edge of the puzzle joins them
+	private static boolean isStep(Vertex from, Vertex to)
+	{
+		for (Edge e: from.getNeighboringEdges())
+		{
+			if (e != null && e.getOtherLinkedVertex(from) == to)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	//Precondition: A grid and the number of the round being played
+	//Postcondition: Moves the start to an open cell without a cost, scanning from a point that depends on the round
+	private static void moveStart(Grid grid, int round)
+	{
+		int cells = grid.getWidth() * grid.getHeight();
+		for (int i = 0; i < cells; i++)
+		{
+			Vertex v = grid.getVertex((round * 997 + i * 7) % cells);
+			if (!v.isWall() && v.getCost() == Vertex.VERTEX_DIST && v != grid.getStart() && v != grid.getFinish())
+			{
+				grid.setStart(v.getIndex() % grid.getWidth(), v.getIndex() / grid.getWidth());
+				return;
+			}
+		}
+	}
+}
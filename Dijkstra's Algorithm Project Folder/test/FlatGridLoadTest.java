@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FlatGridLoadTest
+{
+	/* Checks that FlatGrid.load reads a text puzzle into the same layout, start and finish as Grid(Scanner) and
+	 * FlatGrid(Scanner), which trim every line, when the lines are indented or padded with whitespace.
+	 */
+
+	@TempDir
+	File folder;
+
+	@Test
+	public void indentedLines()
+	{
+		check("  XXXXX\n  XS  X\n\tX  FX\n  XXXXX\n");
+	}
+
+	@Test
+	public void paddedLines()
+	{
+		check("XXXXX   \nXS  X\t\nX  FX \nXXXXX\n   \n\n");
+	}
+
+	@Test
+	public void indentedAndPaddedWindowsLines()
+	{
+		check("   XXXXXX  \r\n XS   X\r\n\t X  X\r\n   X\r\nXX  FX \r\n XXXXXX\r\n  \r\n");
+	}
+
+	@Test
+	public void blankLineInside()
+	{
+		check(" XXXX\n\n  XSFX\n XXXX\n");
+	}
+
+	//Precondition: The text of a puzzle
+	//Postcondition: Fails unless all three readers give the same size, start, finish and cells
+	private void check(String text)
+	{
+		Grid grid = new Grid(new Scanner(text));
+		FlatGrid scanned = new FlatGrid(new Scanner(text));
+		FlatGrid loaded;
+		try
+		{
+			File file = new File(folder, "puzzle.txt");
+			FileOutputStream out = new FileOutputStream(file);
+			out.write(text.getBytes("US-ASCII"));
+			out.close();
+			loaded = FlatGrid.load(file);
+		}
+		catch (IOException e)
+		{
+			throw new RuntimeException(e);
+		}
+
+		for (PuzzleLayout flat: new PuzzleLayout[] {scanned, loaded})
+		{
+			assertEquals(grid.getWidth(), flat.getWidth(), "width");
+			assertEquals(grid.getHeight(), flat.getHeight(), "height");
+			assertEquals(grid.getStartIndex(), flat.getStartIndex(), "start");
+			assertEquals(grid.getFinishIndex(), flat.getFinishIndex(), "finish");
+			for (int y = 0; y < grid.getHeight(); y++)
+			{
+				for (int x = 0; x < grid.getWidth(); x++)
+				{
+					assertEquals(grid.getSymbol(x, y), flat.getSymbol(x, y), "cell " + x + ", " + y);
+				}
+			}
+		}
+	}
+}
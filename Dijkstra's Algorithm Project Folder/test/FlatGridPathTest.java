@@ -0,0 +1,61 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+public class FlatGridPathTest
+{
+	/* Checks that FlatGrid.getPath finds the same path as Grid.getPath on unweighted mazes, and that a puzzle without
+	 * a start or finish is rejected with an IllegalStateException, like TiledGrid, instead of failing on an index of -1.
+	 */
+
+	@Test
+	public void sameAsGrid()
+	{
+		for (int kind = MazeGenerator.OPEN_FIELD; kind <= MazeGenerator.SPARSE_CORRIDORS; kind++)
+		{
+			for (long seed = 0; seed < 5; seed++)
+			{
+				String text = MazeGenerator.generateText(kind, 31, 23, seed);
+				Grid grid = new Grid(new Scanner(text));
+				ArrayList<Vertex> path = grid.getPath();
+				int[] expected = new int[path.size()];
+				for (int i = 0; i < expected.length; i++)
+				{
+					expected[i] = path.get(i).getIndex();
+				}
+				assertArrayEquals(expected, new FlatGrid(new Scanner(text)).getPath(), "kind " + kind + ", seed " + seed);
+			}
+		}
+	}
+
+	@Test
+	public void noStart()
+	{
+		assertRejected("XXXX\nX  X\nX FX\nXXXX");
+	}
+
+	@Test
+	public void noFinish()
+	{
+		assertRejected("XXXX\nXS X\nX  X\nXXXX");
+	}
+
+	//Precondition: The text of a puzzle missing its start or finish
+	//Postcondition: Fails unless solving it throws an IllegalStateException
+	private static void assertRejected(String text)
+	{
+		final FlatGrid grid = new FlatGrid(new Scanner(text));
+		assertThrows(IllegalStateException.class, new Executable()
+		{
+			public void execute()
+			{
+				grid.getPath();
+			}
+		});
+	}
+}
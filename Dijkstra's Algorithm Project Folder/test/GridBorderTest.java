@@ -0,0 +1,75 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+public class GridBorderTest
+{
+	/* Checks puzzles with no wall around them, where open cells sit on the east and south edges and have no
+	 * neighbor on that side. They must build, solve in every mode and take wall edits like any other puzzle.
+	 */
+
+	@Test
+	public void singleRow()
+	{
+		assertSolves("S  F", 3);
+	}
+
+	@Test
+	public void openOnEveryEdge()
+	{
+		assertSolves("S1\n11\n1F", 3);
+	}
+
+	@Test
+	public void trimmedToOneColumn()
+	{
+		//every line is trimmed, so this is a single column with an empty middle row
+		assertSolves("S \n  \n F", 2);
+	}
+
+	@Test
+	public void openSouthEastCorner()
+	{
+		assertSolves("XXXX\nXS  \nX   \nX  F", 4);
+	}
+
+	@Test
+	public void wallEditsOnTheBorder()
+	{
+		final Grid grid = new Grid(new Scanner("S11\n111\n11F"));
+		assertTrue(grid.setWall(2, 1, true));
+		assertTrue(grid.setWall(1, 2, true));
+		for (int mode = 0; mode < Grid.MODE_NAMES.length; mode++)
+		{
+			final int m = mode;
+			assertThrows(UnsolvablePuzzleException.class, new Executable()
+			{
+				public void execute()
+				{
+					grid.getPath(m);
+				}
+			}, Grid.MODE_NAMES[mode]);
+		}
+		//the failed solves have relabeled the components after the wall split them
+		assertFalse(grid.isConnected(grid.getStart(), grid.getFinish()));
+		assertTrue(grid.setWall(2, 1, false));
+		assertEquals(4, grid.getPath().size() - 1);
+	}
+
+	//Precondition: The text of a solvable puzzle and the number of steps in its shortest path
+	//Postcondition: Fails unless the puzzle builds and every solve mode finds a path that long
+	private static void assertSolves(String text, int steps)
+	{
+		for (int mode = 0; mode < Grid.MODE_NAMES.length; mode++)
+		{
+			Grid grid = new Grid(new Scanner(text));
+			assertEquals(steps, grid.getPath(mode).size() - 1, Grid.MODE_NAMES[mode]);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+public class ParallelSearchTest
+{
+	/* Checks that FlatGrid.getPath(ForkJoinPool) finds the same path as the sequential FlatGrid.getPath on random
+	 * mazes, whatever the number of threads. The large open fields have rings of more than ParallelSearch.CHUNK cells,
+	 * so their rings are really split between tasks.
+	 */
+
+	private static final int[] THREADS = {1, 2, 4, 8};
+
+	@Test
+	public void sameAsSequential()
+	{
+		for (int kind = MazeGenerator.OPEN_FIELD; kind <= MazeGenerator.SPARSE_CORRIDORS; kind++)
+		{
+			for (long seed = 0; seed < 10; seed++)
+			{
+				checkPath(MazeGenerator.generateText(kind, 41 + 20 * (int) seed, 29 + 10 * (int) seed, seed),
+						"kind " + kind + ", seed " + seed);
+			}
+		}
+	}
+
+	@Test
+	public void sameAsSequentialWithWideRings()
+	{
+		for (long seed = 0; seed < 3; seed++)
+		{
+			checkPath(MazeGenerator.generateText(MazeGenerator.OPEN_FIELD, 1501, 1001, seed), "open seed " + seed);
+		}
+	}
+
+	//Precondition: The text of a solvable, unweighted puzzle and a description of it for failures
+	//Postcondition: Fails unless every pool size finds the sequential solver's path
+	private static void checkPath(String text, String puzzle)
+	{
+		FlatGrid grid = new FlatGrid(new Scanner(text));
+		int[] expected = grid.getPath();
+		for (int threads : THREADS)
+		{
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			try
+			{
+				assertArrayEquals(expected, grid.getPath(pool), puzzle + ", " + threads + " threads");
+			}
+			finally
+			{
+				pool.shutdown();
+			}
+		}
+	}
+}
@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PuzzleConverterTest
+{
+	/* Checks that a puzzle survives being converted from text to the binary format and back, even with open cells at
+	 * the ends of its rows, and that Grid builds the same puzzle from a binary file as from its text.
+	 */
+
+	@TempDir
+	File folder;
+
+	@Test
+	public void openBorder() throws IOException
+	{
+		check("  S X \nX    X\n    F \n      ");
+	}
+
+	@Test
+	public void openRows() throws IOException
+	{
+		check("S1111\n11111\nXXX11\n1111F");
+	}
+
+	@Test
+	public void walledBorder() throws IOException
+	{
+		check("XXXXX\nXS  X\nX X X\nX  FX\nXXXXX");
+	}
+
+	//Precondition: The text of an unweighted puzzle
+	//Postcondition: Fails unless the puzzle read back from its binary and its rewritten text matches the original
+	private void check(String text) throws IOException
+	{
+		Grid original = new Grid(new Scanner(text));
+		File source = write("puzzle.txt", text);
+		File binary = new File(folder, "puzzle.maze");
+		FlatGrid.load(source).save(binary);
+		File rewritten = new File(folder, "rewritten.txt");
+		PuzzleConverter.writeText(FlatGrid.load(binary), rewritten);
+
+		assertSame(original, Grid.load(binary));
+		assertSame(original, Grid.load(rewritten));
+		assertSame(original, FlatGrid.load(rewritten));
+		assertEquals(original.getPathCost(original.getPath()), Grid.load(binary).getPath().size() - 1, "path");
+	}
+
+	//Precondition: The original puzzle and one read back from a file
+	//Postcondition: Fails unless they have the same size, start, finish and cells
+	private static void assertSame(Grid original, PuzzleLayout copy)
+	{
+		assertEquals(original.getWidth(), copy.getWidth(), "width");
+		assertEquals(original.getHeight(), copy.getHeight(), "height");
+		assertEquals(original.getStartIndex(), copy.getStartIndex(), "start");
+		assertEquals(original.getFinishIndex(), copy.getFinishIndex(), "finish");
+		for (int y = 0; y < original.getHeight(); y++)
+		{
+			for (int x = 0; x < original.getWidth(); x++)
+			{
+				assertEquals(original.getSymbol(x, y), copy.getSymbol(x, y), "cell " + x + ", " + y);
+			}
+		}
+	}
+
+	//Precondition: A file name and its contents
+	//Postcondition: Writes the file in the temporary folder and returns it
+	private File write(String name, String text) throws IOException
+	{
+		File file = new File(folder, name);
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(text.getBytes("US-ASCII"));
+		out.close();
+		return file;
+	}
+}
@@ -0,0 +1,156 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+public class SearchEventRingTest
+{
+	/* Checks that every cell index a grid can have, up to Integer.MAX_VALUE, comes out of the ring with the cell and
+	 * kind it went in with, that events come out in the order they went in as the ring wraps around, also while
+	 * another thread is adding them, and that a full ring drops and counts new events instead of overwriting old ones.
+	 */
+
+	@Test
+	public void cellsKeepTheirKind()
+	{
+		int[] cells = {0, 1, (1 << 30) - 1, 1 << 30, (1 << 30) + 1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+		SearchEventRing ring = new SearchEventRing(64);
+		for (int cell: cells)
+		{
+			ring.add(cell, SearchEventRing.RESOLVED);
+			ring.add(cell, SearchEventRing.FRONTIER);
+		}
+		ring.flush();
+		int[] buffer = new int[64];
+		assertEquals(cells.length * 2, ring.drain(buffer));
+		for (int i = 0; i < cells.length; i++)
+		{
+			assertEquals(cells[i], SearchEventRing.getCell(buffer[2 * i]));
+			assertEquals(SearchEventRing.RESOLVED, SearchEventRing.getKind(buffer[2 * i]));
+			assertEquals(cells[i], SearchEventRing.getCell(buffer[2 * i + 1]));
+			assertEquals(SearchEventRing.FRONTIER, SearchEventRing.getKind(buffer[2 * i + 1]));
+		}
+	}
+
+	@Test
+	public void keepsOrderAcrossWrapAround()
+	{
+		SearchEventRing ring = new SearchEventRing(8);
+		int[] buffer = new int[3];
+		int added = 0;
+		int drained = 0;
+		for (int round = 0; round < 100; round++)
+		{
+			for (int i = 0; i < 5; i++)
+			{
+				ring.add(added++, SearchEventRing.FRONTIER);
+			}
+			ring.flush();
+			for (int count = ring.drain(buffer); count > 0; count = ring.drain(buffer))
+			{
+				for (int i = 0; i < count; i++)
+				{
+					assertEquals(drained++, SearchEventRing.getCell(buffer[i]));
+				}
+			}
+		}
+		assertEquals(added, drained);
+		assertEquals(0, ring.getDropped());
+	}
+
+	@Test
+	public void dropsWhenFull()
+	{
+		SearchEventRing ring = new SearchEventRing(8);
+		for (int cell = 0; cell < 12; cell++)
+		{
+			ring.add(cell, SearchEventRing.RESOLVED);
+		}
+		ring.flush();
+		assertEquals(4, ring.getDropped());
+
+		int[] buffer = new int[16];
+		assertEquals(8, ring.drain(buffer));
+		for (int i = 0; i < 8; i++)
+		{
+			assertEquals(i, SearchEventRing.getCell(buffer[i]), "the oldest events are kept");
+		}
+		ring.add(12, SearchEventRing.RESOLVED);
+		ring.flush();
+		assertEquals(1, ring.drain(buffer));
+		assertEquals(12, SearchEventRing.getCell(buffer[0]));
+		assertEquals(4, ring.getDropped());
+	}
+
+	@Test
+	public void publishesEveryInterval()
+	{
+		SearchEventRing ring = new SearchEventRing(SearchEventRing.PUBLISH_INTERVAL * 4);
+		int[] buffer = new int[SearchEventRing.PUBLISH_INTERVAL * 4];
+		for (int cell = 0; cell < SearchEventRing.PUBLISH_INTERVAL - 1; cell++)
+		{
+			ring.add(cell, SearchEventRing.RESOLVED);
+		}
+		assertEquals(0, ring.drain(buffer), "nothing is published before the interval or a flush");
+		ring.add(SearchEventRing.PUBLISH_INTERVAL - 1, SearchEventRing.RESOLVED);
+		assertEquals(SearchEventRing.PUBLISH_INTERVAL, ring.drain(buffer));
+	}
+
+	@Test
+	public void orderedBetweenThreads() throws InterruptedException
+	{
+		final int total = 1 << 20;
+		final SearchEventRing ring = new SearchEventRing(1024);
+		Thread solver = new Thread()
+		{
+			public void run()
+			{
+				for (int cell = 0; cell < total; cell++)
+				{
+					ring.add(cell, cell & 1);
+				}
+				ring.flush();
+			}
+		};
+		solver.start();
+
+		int[] buffer = new int[100];
+		int received = 0;
+		int last = -1;
+		boolean finished = false;
+		while (!finished)
+		{
+			finished = !solver.isAlive(); //one last drain after the solver has flushed
+			for (int count = ring.drain(buffer); count > 0; count = ring.drain(buffer))
+			{
+				for (int i = 0; i < count; i++)
+				{
+					int cell = SearchEventRing.getCell(buffer[i]);
+					assertTrue(cell > last, "event " + cell + " after " + last);
+					assertEquals(cell & 1, SearchEventRing.getKind(buffer[i]));
+					last = cell;
+				}
+				received += count;
+			}
+		}
+		solver.join();
+		assertEquals(total, received + ring.getDropped());
+	}
+
+	@Test
+	public void rejectsOtherCapacities()
+	{
+		for (final int capacity: new int[] {0, -8, 12})
+		{
+			assertThrows(IllegalArgumentException.class, new Executable()
+			{
+				public void execute()
+				{
+					new SearchEventRing(capacity);
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,69 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+
+public class SolutionCacheTest
+{
+	/* Checks that a SolutionCache drops its least recently used answers to stay within its size, and that a Grid
+	 * using one solves again once a wall changes instead of handing back the answer for the old walls, which is
+	 * still there for when the wall is put back.
+	 */
+
+	private static final String PUZZLE = "XXXXXXX\nXS   FX\nX     X\nXXXXXXX";
+
+	@Test
+	public void evictsLeastRecentlyUsed()
+	{
+		Grid grid = new Grid(new Scanner(PUZZLE));
+		SolutionCache cache = new SolutionCache(250); //two entries with one-cell paths, at 96 + 4 bytes each
+		grid.setStart(1, 2);
+		cache.put(grid, new int[] {1});
+		grid.setStart(2, 2);
+		cache.put(grid, new int[] {2});
+		grid.setStart(1, 2);
+		assertArrayEquals(new int[] {1}, cache.get(grid));
+		grid.setStart(3, 2);
+		cache.put(grid, new int[] {3});
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictions());
+		assertEquals(200, cache.getBytes());
+		grid.setStart(2, 2);
+		assertNull(cache.get(grid), "the least recently used answer is evicted");
+		grid.setStart(1, 2);
+		assertArrayEquals(new int[] {1}, cache.get(grid));
+		grid.setStart(3, 2);
+		assertArrayEquals(new int[] {3}, cache.get(grid));
+	}
+
+	@Test
+	public void wallChangeSolvesAgain()
+	{
+		Grid grid = new Grid(new Scanner(PUZZLE));
+		SolutionCache cache = new SolutionCache(1 << 20);
+		grid.setSolutionCache(cache);
+		assertEquals(4, grid.getPathCost(grid.getPath()));
+		assertEquals(4, grid.getPathCost(grid.getPath()));
+		assertEquals(1, cache.getHits());
+
+		grid.setWall(3, 1, true);
+		ArrayList<Vertex> detour = grid.getPath();
+		assertFalse(grid.getSolveStats().getStrategy().contains("cached"), grid.getSolveStats().getStrategy());
+		assertFalse(detour.contains(grid.getVertex(3, 1)), "the path goes through the new wall");
+		assertEquals(6, grid.getPathCost(detour));
+		assertEquals(2, cache.getMisses());
+
+		grid.setWall(3, 1, false);
+		assertEquals(4, grid.getPathCost(grid.getPath()));
+		assertTrue(grid.getSolveStats().getStrategy().contains("cached"), grid.getSolveStats().getStrategy());
+		assertEquals(2, cache.getHits());
+		assertEquals(2, cache.size());
+	}
+}
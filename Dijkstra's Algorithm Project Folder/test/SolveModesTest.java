@@ -0,0 +1,49 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+
+public class SolveModesTest
+{
+	/* Checks that every solve mode finds a path as cheap as Dijkstra's, when the modes take turns on the same grid
+	 * and its start keeps moving, so the state the solvers keep between solves (Grid.getSearchState) never leaks from
+	 * one solve into the next.
+	 */
+
+	@Test
+	public void modesTakingTurns()
+	{
+		for (int kind = 0; kind < MazeGenerator.KIND_NAMES.length; kind++)
+		{
+			Grid grid = new Grid(new Scanner(MazeGenerator.generateText(kind, 41, 29, kind)));
+			for (int round = 0; round < 4; round++)
+			{
+				grid.forgetSearches();
+				int cost = grid.getPathCost(grid.getPath(Grid.DIJKSTRA));
+				for (int mode = Grid.A_STAR; mode < Grid.MODE_NAMES.length; mode++)
+				{
+					assertEquals(cost, grid.getPathCost(grid.getPath(mode)),
+							MazeGenerator.KIND_NAMES[kind] + ", round " + round + ", " + Grid.MODE_NAMES[mode]);
+				}
+				moveStart(grid, round);
+			}
+		}
+	}
+
+	//Precondition: A grid and the number of the round being played
+	//Postcondition: Moves the start to an open cell without a cost, scanning from a point that depends on the round
+	private static void moveStart(Grid grid, int round)
+	{
+		int cells = grid.getWidth() * grid.getHeight();
+		for (int i = 0; i < cells; i++)
+		{
+			Vertex v = grid.getVertex((round * 997 + i * 7) % cells);
+			if (!v.isWall() && v.getCost() == Vertex.VERTEX_DIST && v != grid.getStart() && v != grid.getFinish())
+			{
+				grid.setStart(v.getIndex() % grid.getWidth(), v.getIndex() / grid.getWidth());
+				return;
+			}
+		}
+	}
+}
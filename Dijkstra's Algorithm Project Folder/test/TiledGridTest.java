@@ -0,0 +1,113 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TiledGridTest
+{
+	/* Checks that TiledGrid.convert lays a text puzzle out with the same size, start, finish and walls as
+	 * Grid(Scanner), which trims every line, so a cell has the same index whichever loader reads the file, and that
+	 * solving the tiled puzzle finds a path as long as FlatGrid's, also on puzzles that span several tiles.
+	 */
+
+	@TempDir
+	File folder;
+
+	@Test
+	public void indentedLines() throws IOException
+	{
+		checkLayout("  XXXXX\n  XS  X\n  X  FX\n  XXXXX");
+	}
+
+	@Test
+	public void indentedAndPaddedLines() throws IOException
+	{
+		checkLayout("   XXXXXX  \r\n XS   X\r\n\t X  X\r\n   X\r\nXX  FX \r\n XXXXXX\r\n  \r\n");
+	}
+
+	@Test
+	public void blankLineInside() throws IOException
+	{
+		checkLayout(" XXXX\n\n  XSFX\n XXXX\n");
+	}
+
+	@Test
+	public void sameLengthAsFlatGrid() throws IOException
+	{
+		for (int kind = MazeGenerator.OPEN_FIELD; kind <= MazeGenerator.SPARSE_CORRIDORS; kind++)
+		{
+			for (long seed = 0; seed < 3; seed++)
+			{
+				String text = MazeGenerator.generateText(kind, 301, 263, seed);
+				String puzzle = MazeGenerator.KIND_NAMES[kind] + ", seed " + seed;
+				int[] expected = new FlatGrid(new Scanner(text)).getPath();
+				TiledGrid tiled = convert(text);
+				try
+				{
+					assertEquals(expected.length - 1, tiled.solve(), puzzle);
+					long[] path = tiled.getPath();
+					int width = tiled.getWidth();
+					assertEquals(expected[0], path[0], puzzle);
+					assertEquals(expected[expected.length - 1], path[path.length - 1], puzzle);
+					for (int i = 1; i < path.length; i++)
+					{
+						long step = Math.abs(path[i] - path[i - 1]);
+						assertTrue(step == 1 || step == width, puzzle + ", step " + i);
+						assertFalse(tiled.isWall((int) (path[i] % width), (int) (path[i] / width)),
+								puzzle + ", step " + i);
+					}
+				}
+				finally
+				{
+					tiled.close();
+				}
+			}
+		}
+	}
+
+	//Precondition: The text of a puzzle
+	//Postcondition: Fails unless the tiled puzzle converted from it matches the Grid read from it
+	private void checkLayout(String text) throws IOException
+	{
+		Grid grid = new Grid(new Scanner(text));
+		TiledGrid tiled = convert(text);
+		try
+		{
+			assertEquals(grid.getWidth(), tiled.getWidth(), "width");
+			assertEquals(grid.getHeight(), tiled.getHeight(), "height");
+			assertEquals(grid.getStartIndex(), tiled.getStart(), "start");
+			assertEquals(grid.getFinishIndex(), tiled.getFinish(), "finish");
+			for (int y = 0; y < grid.getHeight(); y++)
+			{
+				for (int x = 0; x < grid.getWidth(); x++)
+				{
+					assertEquals(grid.getSymbol(x, y) == 'X', tiled.isWall(x, y), "cell " + x + ", " + y);
+				}
+			}
+		}
+		finally
+		{
+			tiled.close();
+		}
+	}
+
+	//Precondition: The text of a puzzle
+	//Postcondition: Writes it to a file, converts that to the tiled format and returns the tiled puzzle, open
+	private TiledGrid convert(String text) throws IOException
+	{
+		File input = new File(folder, "puzzle.txt");
+		FileOutputStream out = new FileOutputStream(input);
+		out.write(text.getBytes("US-ASCII"));
+		out.close();
+		File output = new File(folder, "puzzle.tiles");
+		TiledGrid.convert(input, output);
+		return TiledGrid.open(output);
+	}
+}
@@ -0,0 +1,87 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+
+public class VertexFrontierTest
+{
+	/* Checks that the breadth-first VertexQueue and the Dial VertexBuckets hand vertices back in the same key order as
+	 * the VertexRadixHeap on the kind of keys Dijkstra's algorithm gives them, and that getPath(DIJKSTRA) really takes
+	 * those fast paths on unweighted and weighted puzzles and finds paths as cheap as the heap-based A*.
+	 */
+
+	@Test
+	public void queueMatchesHeap()
+	{
+		checkOrder(new VertexQueue(), 1, true);
+		checkOrder(new VertexRadixHeap(), 1, true);
+	}
+
+	@Test
+	public void bucketsMatchHeap()
+	{
+		checkOrder(new VertexBuckets(9), 9, false);
+		checkOrder(new VertexBuckets(Grid.MAX_BUCKET_DISTANCE), Grid.MAX_BUCKET_DISTANCE, false);
+		checkOrder(new VertexRadixHeap(), Grid.MAX_BUCKET_DISTANCE, false);
+	}
+
+	@Test
+	public void fastPathsMatchHeapSolve()
+	{
+		for (int kind = 0; kind < MazeGenerator.KIND_NAMES.length; kind++)
+		{
+			for (long seed = 0; seed < 3; seed++)
+			{
+				String puzzle = MazeGenerator.KIND_NAMES[kind] + ", seed " + seed;
+				Grid grid = new Grid(new Scanner(MazeGenerator.generateText(kind, 61, 43, seed)));
+				int cost = grid.getPathCost(grid.getPath(Grid.DIJKSTRA));
+				String strategy = grid.getSolveStats().getStrategy();
+				if (kind == MazeGenerator.WEIGHTED_TERRAIN)
+				{
+					assertTrue(strategy.contains("Dial buckets"), puzzle + ": " + strategy);
+				}
+				else
+				{
+					assertTrue(strategy.contains("breadth-first queue"), puzzle + ": " + strategy);
+				}
+				assertEquals(grid.getPathCost(grid.getPath(Grid.A_STAR)), cost, puzzle);
+				assertTrue(grid.getSolveStats().getStrategy().contains("radix heap"), puzzle);
+			}
+		}
+	}
+
+	//Precondition: An empty frontier, the longest edge length it may be given and whether every edge has that length
+	//Postcondition: Runs a random search through it the way Dijkstra's algorithm would, every vertex added with the
+	//				 key of the last one polled plus an edge length, and fails unless each poll returns a vertex with
+	//				 the lowest key left
+	private static void checkOrder(VertexFrontier frontier, int maxDistance, boolean sameLength)
+	{
+		Random rand = new Random(maxDistance);
+		PriorityQueue<Long> expected = new PriorityQueue<Long>();
+		long[] keys = new long[20000];
+		int added = 0;
+		frontier.addOrDecrease(new Vertex(added), 0);
+		expected.add(0L);
+		added++;
+		while (!frontier.isEmpty())
+		{
+			Vertex v = frontier.poll();
+			long key = keys[v.getIndex()];
+			assertEquals(expected.poll(), Long.valueOf(key), "poll after " + added + " added");
+			//at least one new vertex whenever the frontier would otherwise run dry, so the search goes on to the end
+			for (int n = expected.isEmpty() ? 1 + rand.nextInt(3) : rand.nextInt(4); n > 0 && added < keys.length; n--)
+			{
+				keys[added] = key + (sameLength ? maxDistance : rand.nextInt(maxDistance + 1));
+				frontier.addOrDecrease(new Vertex(added), keys[added]);
+				expected.add(keys[added]);
+				added++;
+			}
+		}
+		assertTrue(expected.isEmpty(), "vertices lost");
+		assertEquals(keys.length, added);
+	}
+}